@@ -0,0 +1,209 @@
+package com.epic.cms.cache;
+
+import com.epic.cms.event.CardChangeEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+/**
+ * Cross-instance invalidation for {@link InvalidatableCache}s over PostgreSQL LISTEN/NOTIFY.
+ * <p>
+ * Change keys are sent with {@code pg_notify} inside the writing transaction, so other instances
+ * hear about a change exactly when it commits and never about a rolled-back one. Each instance
+ * listens on its own unpooled connection. Notifications sent while that connection was down are
+ * lost, so every reconnect flushes all caches instead of trusting them.
+ */
+@Component
+@ConditionalOnProperty(prefix = "cms.cache.invalidation", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CacheInvalidationBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+    private static final String SEPARATOR = "|";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<InvalidatableCache> caches;
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+    private final Counter received;
+    private final Counter flushes;
+
+    @Value("${cms.cache.invalidation.channel:cms_cache_invalidation}")
+    private String channel;
+
+    @Value("${cms.cache.invalidation.poll-timeout-ms:500}")
+    private int pollTimeoutMs;
+
+    @Value("${cms.cache.invalidation.reconnect-backoff-ms:1000}")
+    private long reconnectBackoffMs;
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username:}")
+    private String username;
+
+    @Value("${spring.datasource.password:}")
+    private String password;
+
+    private volatile boolean running;
+    private volatile Connection listenConnection;
+    private Thread listenerThread;
+
+    public CacheInvalidationBus(JdbcTemplate jdbcTemplate, ObjectProvider<InvalidatableCache> caches,
+                                MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.caches = caches;
+        this.received = Counter.builder("cms.cache.invalidation.received")
+                .description("Invalidation notifications received from other instances")
+                .register(meterRegistry);
+        this.flushes = Counter.builder("cms.cache.invalidation.flushes")
+                .description("Full cache flushes after a listener reconnect")
+                .register(meterRegistry);
+    }
+
+    public static String cardKey(String encryptedCardNumber) {
+        return "card:" + encryptedCardNumber;
+    }
+
+    public static String requestKey(Long requestId) {
+        return "request:" + requestId;
+    }
+
+    /**
+     * Announces a change to every instance when the current transaction commits. This instance's
+     * caches are evicted locally after commit rather than waiting for its own notification.
+     */
+    public void publish(String changeKey) {
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, channel, nodeId + SEPARATOR + changeKey);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateLocal(changeKey);
+                }
+            });
+        } else {
+            invalidateLocal(changeKey);
+        }
+    }
+
+    // Synchronous listener: runs inside the publishing service's transaction
+    @EventListener
+    public void onChange(CardChangeEvent event) {
+        switch (event.getType()) {
+            case CARD_CREATED, CARD_UPDATED, CARD_STATUS_CHANGED -> publish(cardKey(event.getCardNumber()));
+            case REQUEST_CREATED, REQUEST_PROCESSED -> publish(requestKey(event.getRequestId()));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        listenerThread = Thread.ofPlatform().daemon().name("cms-cache-invalidation").start(this::listen);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        closeQuietly(listenConnection);
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    private void listen() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                listenConnection = connection;
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                logger.info("Listening for cache invalidations on channel '{}' as node {}", channel, nodeId);
+                if (reconnect) {
+                    // Anything sent while we were disconnected is gone
+                    flushAll();
+                }
+                reconnect = true;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        handle(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Cache invalidation listener disconnected, retrying in {}ms: {}", reconnectBackoffMs, e.getMessage());
+                reconnect = true;
+                try {
+                    Thread.sleep(reconnectBackoffMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void handle(String payload) {
+        int separator = payload.indexOf(SEPARATOR);
+        if (separator < 0 || payload.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        received.increment();
+        invalidateLocal(payload.substring(separator + 1));
+    }
+
+    private void invalidateLocal(String changeKey) {
+        caches.orderedStream().forEach(cache -> {
+            try {
+                cache.invalidate(changeKey);
+            } catch (Exception e) {
+                logger.error("Cache '{}' failed to invalidate {}: {}", cache.getName(), changeKey, e.getMessage(), e);
+            }
+        });
+    }
+
+    private void flushAll() {
+        flushes.increment();
+        caches.orderedStream().forEach(cache -> {
+            logger.info("Flushing cache '{}' after invalidation listener reconnect", cache.getName());
+            cache.invalidateAll();
+        });
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+                // shutting down
+            }
+        }
+    }
+}
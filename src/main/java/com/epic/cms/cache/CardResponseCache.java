@@ -0,0 +1,170 @@
+package com.epic.cms.cache;
+
+import com.epic.cms.dto.CardResponseDto;
+import com.epic.cms.model.Card;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Full card responses, serialised once, for cards whose row has not changed since.
+ * <p>
+ * Entries are keyed by the bus's change key for the row's ciphertext and checked against the row
+ * just read: last_update_time, which every card edit sets, and the available amounts, which
+ * authorization holds move without touching it. A stale entry is therefore never served,
+ * even before its invalidation arrives. Least recently used entries are evicted to stay within
+ * {@code cms.cache.card-responses.max-bytes}; zero turns the cache off.
+ */
+@Component
+public class CardResponseCache implements InvalidatableCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CardResponseCache.class);
+
+    // The response's fields and the entry itself, on top of the JSON held as a String and as bytes
+    private static final int ENTRY_OVERHEAD_BYTES = 512;
+
+    private final ObjectMapper objectMapper;
+    private final long maxBytes;
+    private final Map<String, SerializedCardResponse> entries = new LinkedHashMap<>(1024, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private long bytes;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public CardResponseCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                             @Value("${cms.cache.card-responses.max-bytes:64MB}") DataSize maxBytes) {
+        this.objectMapper = objectMapper;
+        this.maxBytes = maxBytes.toBytes();
+        this.hits = Counter.builder("cms.cache.card-responses.requests")
+                .tag("result", "hit")
+                .description("Card response lookups served from serialised JSON")
+                .register(meterRegistry);
+        this.misses = Counter.builder("cms.cache.card-responses.requests")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("cms.cache.card-responses.evictions")
+                .description("Card responses evicted to stay within the memory budget")
+                .register(meterRegistry);
+        Gauge.builder("cms.cache.card-responses.bytes", this, CardResponseCache::size)
+                .description("Estimated memory held by cached card responses")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return "card-responses";
+    }
+
+    /**
+     * The cached response for the card row, which must still carry its ciphertext; otherwise the
+     * loader's response, serialised and cached. Only misses run the loader.
+     */
+    public SerializedCardResponse get(Card card, Supplier<CardResponseDto> loader) {
+        if (maxBytes <= 0) {
+            return SerializedCardResponse.of(loader.get());
+        }
+        String key = CacheInvalidationBus.cardKey(card.getCardNumber());
+        SerializedCardResponse cached;
+        lock.lock();
+        try {
+            cached = entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+        if (cached != null && isCurrent(cached, card)) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        CardResponseDto response = loader.get();
+        SerializedCardResponse serialized;
+        try {
+            serialized = SerializedCardResponse.cached(response, objectMapper.writeValueAsBytes(response));
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not serialise card response for caching: {}", e.getMessage());
+            return SerializedCardResponse.of(response);
+        }
+        put(key, serialized);
+        return serialized;
+    }
+
+    @Override
+    public void invalidate(String changeKey) {
+        lock.lock();
+        try {
+            SerializedCardResponse removed = entries.remove(changeKey);
+            if (removed != null) {
+                bytes -= weigh(removed);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            entries.clear();
+            bytes = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(String key, SerializedCardResponse response) {
+        int weight = weigh(response);
+        if (weight > maxBytes) {
+            return;
+        }
+        lock.lock();
+        try {
+            SerializedCardResponse previous = entries.put(key, response);
+            bytes += weight - (previous == null ? 0 : weigh(previous));
+            Iterator<SerializedCardResponse> eldest = entries.values().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                bytes -= weigh(eldest.next());
+                eldest.remove();
+                evictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private double size() {
+        lock.lock();
+        try {
+            return bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static boolean isCurrent(SerializedCardResponse cached, Card card) {
+        CardResponseDto response = cached.response();
+        return Objects.equals(response.getLastUpdateTime(), card.getLastUpdateTime())
+                && Objects.equals(response.getAvailableCreditLimit(), card.getAvailableCreditLimit())
+                && Objects.equals(response.getAvailableCashLimit(), card.getAvailableCashLimit());
+    }
+
+    private static int weigh(SerializedCardResponse response) {
+        return 2 * response.jsonLength() + ENTRY_OVERHEAD_BYTES;
+    }
+}
@@ -0,0 +1,15 @@
+package com.epic.cms.cache;
+
+/**
+ * An in-process cache that {@link CacheInvalidationBus} keeps consistent across instances.
+ * Keys are the bus's change keys (see {@link CacheInvalidationBus#cardKey(String)}); a cache
+ * ignores keys it does not hold.
+ */
+public interface InvalidatableCache {
+
+    String getName();
+
+    void invalidate(String changeKey);
+
+    void invalidateAll();
+}
@@ -0,0 +1,83 @@
+package com.epic.cms.cache;
+
+import com.epic.cms.dto.CardResponseDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.json.JsonGeneratorImpl;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A card response as returned by the card service: the {@link CardResponseDto} and, for responses
+ * from {@link CardResponseCache}, the JSON the application's ObjectMapper wrote for it. JSON output
+ * copies those bytes instead of serialising the fields again, both as a whole response and spliced
+ * into a list; CBOR, Smile and uncached responses serialise the DTO's fields.
+ * <p>
+ * One cached instance is handed to every request for the card, so the DTO is kept private and
+ * nothing here can change it after the JSON was written.
+ */
+@JsonSerialize(using = SerializedCardResponse.Serializer.class)
+public final class SerializedCardResponse {
+
+    private final CardResponseDto response;
+    // Keeps the UTF-8 bytes once encoded, so every later write is a copy; null until cached
+    private final SerializedString json;
+
+    private SerializedCardResponse(CardResponseDto response, SerializedString json) {
+        this.response = response;
+        this.json = json;
+    }
+
+    // A response serialised by Jackson when written, e.g. a fields= projection or a cache miss the
+    // cache could not keep
+    public static SerializedCardResponse of(CardResponseDto response) {
+        return new SerializedCardResponse(response, null);
+    }
+
+    static SerializedCardResponse cached(CardResponseDto response, byte[] json) {
+        SerializedString serialized = new SerializedString(new String(json, StandardCharsets.UTF_8));
+        serialized.asUnquotedUTF8();
+        return new SerializedCardResponse(response, serialized);
+    }
+
+    // Read by the cache's freshness check only; never handed out, since it is shared
+    CardResponseDto response() {
+        return response;
+    }
+
+    public boolean hasJson() {
+        return json != null;
+    }
+
+    public int jsonLength() {
+        return json.asUnquotedUTF8().length;
+    }
+
+    public void writeJson(OutputStream out) throws IOException {
+        json.writeUnquotedUTF8(out);
+    }
+
+    static class Serializer extends StdSerializer<SerializedCardResponse> {
+
+        Serializer() {
+            super(SerializedCardResponse.class);
+        }
+
+        @Override
+        public void serialize(SerializedCardResponse value, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            // Only Jackson's JSON generators take the stored JSON as is; binary formats, token
+            // buffers and anything else get the fields
+            if (value.json != null && gen instanceof JsonGeneratorImpl) {
+                gen.writeRawValue(value.json);
+            } else {
+                provider.findValueSerializer(CardResponseDto.class).serialize(value.response, gen, provider);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.epic.cms.cache;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * Writes a cached card response's JSON bytes straight to the response body when JSON is negotiated;
+ * a response without stored JSON is serialised by the application's ObjectMapper.
+ * Write-only; CBOR and Smile fall through to their Jackson converters.
+ */
+public class SerializedCardResponseHttpMessageConverter extends AbstractHttpMessageConverter<SerializedCardResponse> {
+
+    private final ObjectMapper objectMapper;
+
+    public SerializedCardResponseHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return SerializedCardResponse.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected SerializedCardResponse readInternal(Class<? extends SerializedCardResponse> clazz,
+                                                  HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Cached card responses are write-only", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(SerializedCardResponse response, MediaType contentType) {
+        return response.hasJson() ? (long) response.jsonLength() : null;
+    }
+
+    @Override
+    protected void writeInternal(SerializedCardResponse response, HttpOutputMessage outputMessage) throws IOException {
+        if (response.hasJson()) {
+            response.writeJson(outputMessage.getBody());
+            return;
+        }
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputMessage.getBody(), JsonEncoding.UTF8);
+        objectMapper.writeValue(generator, response);
+        generator.flush();
+    }
+}
@@ -0,0 +1,98 @@
+package com.epic.cms.config;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * AIMD concurrency limit: each fast completion while the limit is actually in use grows the limit by
+ * {@code 1/limit} (about +1 per round trip of a full window); a completion slower than the latency
+ * threshold multiplies it by the backoff ratio. Requests beyond the current limit are rejected
+ * immediately instead of queueing.
+ * <p>
+ * As in TCP congestion control, the limit backs off at most once per window: a slow request that
+ * started before the last backoff was admitted under the old limit and is not counted again, so a
+ * burst of slow completions costs one step rather than one per request.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final int retryAfterSeconds;
+
+    private final AtomicLong limitBits;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong lastBackoffNanos = new AtomicLong(System.nanoTime());
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      long latencyThresholdMs, int retryAfterSeconds) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(clamp(initialLimit)));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (latencyNanos > latencyThresholdNanos) {
+            long now = System.nanoTime();
+            long lastBackoff = lastBackoffNanos.get();
+            if (now - latencyNanos - lastBackoff >= 0 && lastBackoffNanos.compareAndSet(lastBackoff, now)) {
+                updateLimit(limit -> limit * BACKOFF_RATIO);
+            }
+        } else if (inFlightBefore * 2 >= getLimit()) {
+            // Only grow when the window is actually being used, otherwise an idle endpoint drifts to max
+            updateLimit(limit -> limit + 1.0 / limit);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    private void updateLimit(DoubleUnaryOperator update) {
+        limitBits.updateAndGet(bits ->
+                Double.doubleToLongBits(clamp(update.applyAsDouble(Double.longBitsToDouble(bits)))));
+    }
+
+    private double clamp(double limit) {
+        return Math.max(minLimit, Math.min(maxLimit, limit));
+    }
+}
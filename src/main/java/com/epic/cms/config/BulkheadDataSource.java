@@ -0,0 +1,157 @@
+package com.epic.cms.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Semaphore bulkhead in front of the connection pool. Each checked-out connection holds one permit
+ * until it is closed, so however many (virtual) threads call {@link #getConnection()}, at most
+ * {@code maxConcurrent} reach the pool and the rest wait here in FIFO order with a bounded timeout.
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkheadDataSource.class);
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long acquireTimeoutMs;
+    private final ThreadLocal<Boolean> preAcquired = new ThreadLocal<>();
+
+    public BulkheadDataSource(DataSource target, int maxConcurrent, long acquireTimeoutMs) {
+        super(target);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        logger.info("BulkheadDataSource initialized: maxConcurrent={}, acquireTimeoutMs={}", maxConcurrent, acquireTimeoutMs);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return guard(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return guard(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Takes a permit only if one is free right now. Used by optional parallel work that would rather
+     * run on the caller's own connection than queue behind it while the caller holds a permit.
+     */
+    public boolean tryAcquirePermit() {
+        return permits.tryAcquire();
+    }
+
+    // Returns a permit taken with tryAcquirePermit() whose task will never run
+    public void releasePermit() {
+        permits.release();
+    }
+
+    /**
+     * Runs a task on the current thread whose first connection checkout uses a permit already taken
+     * with {@link #tryAcquirePermit()}. The permit is returned if the task never opens a connection.
+     */
+    public <T> T callWithAcquiredPermit(Callable<T> task) throws Exception {
+        preAcquired.set(Boolean.TRUE);
+        try {
+            return task.call();
+        } finally {
+            if (preAcquired.get() != null) {
+                preAcquired.remove();
+                permits.release();
+            }
+        }
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    private void acquire() throws SQLException {
+        if (preAcquired.get() != null) {
+            preAcquired.remove();
+            return;
+        }
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                logger.warn("Connection bulkhead saturated: no permit within {}ms ({} waiting)",
+                        acquireTimeoutMs, permits.getQueueLength());
+                throw new SQLTransientConnectionException(
+                        "Connection bulkhead saturated, no permit within " + acquireTimeoutMs + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted waiting for connection permit", e);
+        }
+    }
+
+    private Connection guard(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        return null;
+                    }
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "unwrap":
+                            if (((Class<?>) args[0]).isInstance(proxy)) {
+                                return proxy;
+                            }
+                            break;
+                        default:
+                            break;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
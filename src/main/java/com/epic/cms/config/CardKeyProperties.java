@@ -0,0 +1,15 @@
+package com.epic.cms.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "cms.security.encryption.card-keys")
+public class CardKeyProperties {
+
+    private int activeVersion = 1;                          // new ciphertext is written under this key
+    private Map<Integer, String> versions = new LinkedHashMap<>();  // version 1 defaults to cms.security.encryption.key
+}
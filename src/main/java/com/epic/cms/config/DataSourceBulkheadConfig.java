@@ -0,0 +1,55 @@
+package com.epic.cms.config;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Puts a {@link BulkheadDataSource} in front of the application's DataSource. With replica routing on,
+ * that DataSource fronts the primary and every replica pool, so one semaphore covers them all. Unless
+ * {@code cms.datasource.bulkhead.max-concurrent} is set, it is sized to the sum of their pools;
+ * adding a replica then raises read concurrency. A burst of one kind can still fill the bulkhead and
+ * then queue in its own pool.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "cms.datasource.bulkhead", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceBulkheadConfig {
+
+    @Bean
+    public static BeanPostProcessor dataSourceBulkheadPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)
+                        || bean instanceof BulkheadDataSource) {
+                    return bean;
+                }
+                int maxConcurrent = environment.getProperty("cms.datasource.bulkhead.max-concurrent", Integer.class, 0);
+                if (maxConcurrent <= 0) {
+                    maxConcurrent = totalPoolSize(environment);
+                }
+                long acquireTimeoutMs = environment.getProperty("cms.datasource.bulkhead.acquire-timeout-ms", Long.class, 5000L);
+                return new BulkheadDataSource(dataSource, maxConcurrent, acquireTimeoutMs);
+            }
+        };
+    }
+
+    private static int totalPoolSize(Environment environment) {
+        int total = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        ReplicaRoutingProperties routing = Binder.get(environment)
+                .bind("cms.datasource.routing", ReplicaRoutingProperties.class)
+                .orElseGet(ReplicaRoutingProperties::new);
+        if (routing.isEnabled()) {
+            for (ReplicaRoutingProperties.Replica replica : routing.getReplicas()) {
+                total += replica.getMaximumPoolSize();
+            }
+        }
+        return total;
+    }
+}
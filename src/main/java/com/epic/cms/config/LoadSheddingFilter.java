@@ -0,0 +1,140 @@
+package com.epic.cms.config;
+
+import com.epic.cms.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sheds load per endpoint class before it reaches a request thread's real work. Bulk list reads,
+ * single-record reads and encrypted writes each get their own {@link AdaptiveConcurrencyLimiter},
+ * so a full-table export can no longer starve interactive card lookups.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(prefix = "cms.concurrency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadSheddingFilter.class);
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    public enum EndpointClass {
+        BULK_READS("bulk-reads"),
+        SINGLE_READS("single-reads"),
+        WRITES("writes");
+
+        private final String propertyKey;
+
+        EndpointClass(String propertyKey) {
+            this.propertyKey = propertyKey;
+        }
+    }
+
+    private final Map<EndpointClass, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(EndpointClass.class);
+    private final ObjectMapper objectMapper;
+
+    public LoadSheddingFilter(Environment environment, MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            String prefix = "cms.concurrency." + endpointClass.propertyKey + ".";
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                    endpointClass.propertyKey,
+                    environment.getProperty(prefix + "initial-limit", Integer.class, 20),
+                    environment.getProperty(prefix + "min-limit", Integer.class, 1),
+                    environment.getProperty(prefix + "max-limit", Integer.class, 200),
+                    environment.getProperty(prefix + "latency-threshold-ms", Long.class, 500L),
+                    environment.getProperty(prefix + "retry-after-seconds", Integer.class, 1));
+            limiters.put(endpointClass, limiter);
+
+            Gauge.builder("cms.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag("class", limiter.getName())
+                    .description("Current adaptive concurrency limit")
+                    .register(meterRegistry);
+            Gauge.builder("cms.concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .tag("class", limiter.getName())
+                    .register(meterRegistry);
+            FunctionCounter.builder("cms.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                    .tag("class", limiter.getName())
+                    .register(meterRegistry);
+        }
+        logger.info("LoadSheddingFilter initialized");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = classify(request.getMethod(), request.getRequestURI());
+        if (endpointClass == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        AdaptiveConcurrencyLimiter limiter = limiters.get(endpointClass);
+        if (!limiter.tryAcquire()) {
+            logger.warn("{} {} - Shed: {} limit {} reached", request.getMethod(), request.getRequestURI(),
+                    limiter.getName(), limiter.getLimit());
+            reject(response, limiter);
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - startTime);
+        }
+    }
+
+    static EndpointClass classify(String method, String uri) {
+        boolean cards = uri.startsWith("/api/cards");
+        boolean requests = uri.startsWith("/api/card-requests");
+        if (!cards && !requests) {
+            return null;
+        }
+        if (uri.contains("/authorizations")) {
+            // Group-committed by the ledger's single writer, whose queue already bounds their database use
+            return null;
+        }
+        if ("POST".equals(method) && uri.equals("/api/cards/lookup")) {
+            // A batch read despite the verb; it serves the same interactive screens as single lookups
+            return EndpointClass.SINGLE_READS;
+        }
+        if (!"GET".equals(method)) {
+            return WRITE_METHODS.contains(method) ? EndpointClass.WRITES : null;
+        }
+        if (uri.equals("/api/cards") || uri.equals("/api/card-requests") || uri.endsWith("/paginated")
+                || uri.equals("/api/cards/search")) {
+            return EndpointClass.BULK_READS;
+        }
+        return EndpointClass.SINGLE_READS;
+    }
+
+    private void reject(HttpServletResponse response, AdaptiveConcurrencyLimiter limiter) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(limiter.getRetryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse("OVERLOADED", "Too many concurrent " + limiter.getName() + " requests, retry later"));
+    }
+}
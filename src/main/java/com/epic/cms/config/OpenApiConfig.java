@@ -1,9 +1,12 @@
 package com.epic.cms.config;
 
+import com.epic.cms.cache.SerializedCardResponse;
+import com.epic.cms.dto.CardResponseDto;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.info.Contact;
 import io.swagger.v3.oas.models.servers.Server;
+import org.springdoc.core.utils.SpringDocUtils;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -12,6 +15,11 @@ import java.util.List;
 @Configuration
 public class OpenApiConfig {
 
+    // Card responses are written as the DTO's fields, whether or not they carry cached JSON
+    static {
+        SpringDocUtils.getConfig().replaceWithClass(SerializedCardResponse.class, CardResponseDto.class);
+    }
+
     @Bean
     public OpenAPI cardManagementOpenAPI() {
         return new OpenAPI()
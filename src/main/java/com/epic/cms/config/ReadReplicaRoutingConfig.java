@@ -0,0 +1,71 @@
+package com.epic.cms.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured single pool with primary + replica pools behind a routing proxy.
+ * {@code @Transactional(readOnly = true)} service methods are served by replicas, everything else by the primary.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+@ConditionalOnProperty(prefix = "cms.datasource.routing", name = "enabled", havingValue = "true")
+public class ReadReplicaRoutingConfig {
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties primaryProperties,
+                                                             ReplicaRoutingProperties routingProperties) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<ReplicaRoutingProperties.Replica> configured = routingProperties.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            ReplicaRoutingProperties.Replica replica = configured.get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : primaryProperties.getUsername());
+            dataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : primaryProperties.getPassword());
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            replicas.put("replica-" + i, dataSource);
+        }
+        routingDataSource = new ReplicaRoutingDataSource(primaryDataSource, replicas, routingProperties.getMaxLagSeconds());
+        return routingDataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${cms.datasource.routing.health-check-interval-ms:2000}")
+    public void checkReplicaLag() {
+        if (routingDataSource != null) {
+            routingDataSource.refreshReplicaHealth();
+        }
+    }
+}
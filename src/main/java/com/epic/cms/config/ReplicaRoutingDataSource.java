@@ -0,0 +1,101 @@
+package com.epic.cms.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes connections of read-only transactions to a healthy replica (round robin) and everything else
+ * to the primary. A replica is taken out of rotation while its replay lag exceeds the configured maximum
+ * or it cannot be reached, and reads fall back to the primary when no replica is healthy.
+ * <p>
+ * Must sit behind a {@code LazyConnectionDataSourceProxy}: the transaction's read-only flag is only
+ * bound after the transaction manager asks for a connection.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    static final String PRIMARY = "primary";
+
+    // Replayed-and-received LSNs equal means fully caught up, even when the primary has been idle
+    private static final String LAG_QUERY = """
+        SELECT CASE
+                 WHEN NOT pg_is_in_recovery() THEN 0
+                 WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                 ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+               END
+    """;
+
+    private final Map<String, DataSource> replicas;
+    private final long maxLagSeconds;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private volatile List<String> healthyReplicas;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, long maxLagSeconds) {
+        this.replicas = replicas;
+        this.maxLagSeconds = maxLagSeconds;
+        this.healthyReplicas = new ArrayList<>(replicas.keySet());
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        logger.info("ReplicaRoutingDataSource initialized with {} replica(s), maxLagSeconds={}", replicas.size(), maxLagSeconds);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        List<String> candidates = healthyReplicas;
+        if (candidates.isEmpty()) {
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(nextReplica.getAndIncrement(), candidates.size()));
+    }
+
+    public void refreshReplicaHealth() {
+        List<String> healthy = new ArrayList<>();
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            try {
+                Double lagSeconds = new JdbcTemplate(replica.getValue()).queryForObject(LAG_QUERY, Double.class);
+                if (lagSeconds != null && lagSeconds <= maxLagSeconds) {
+                    healthy.add(replica.getKey());
+                } else {
+                    logger.warn("Replica {} lagging by {}s (max {}s) - routing its reads to primary",
+                            replica.getKey(), lagSeconds, maxLagSeconds);
+                }
+            } catch (Exception e) {
+                logger.warn("Replica {} health check failed: {}", replica.getKey(), e.getMessage());
+            }
+        }
+        if (!healthy.equals(healthyReplicas)) {
+            logger.info("Healthy replicas changed: {} -> {}", healthyReplicas, healthy);
+        }
+        healthyReplicas = healthy;
+    }
+
+    public List<String> getHealthyReplicas() {
+        return healthyReplicas;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.epic.cms.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "cms.datasource.routing")
+public class ReplicaRoutingProperties {
+
+    private boolean enabled;
+    private long maxLagSeconds = 5;
+    private long healthCheckIntervalMs = 2000;
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,36 @@
+package com.epic.cms.config;
+
+import com.epic.cms.cache.SerializedCardResponseHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * CBOR ({@code application/cbor}) and Smile ({@code application/x-jackson-smile}) next to JSON for
+ * every controller, chosen by the Accept header. Both mappers come from the application's
+ * {@link Jackson2ObjectMapperBuilder}, so dates, naming and null handling match the JSON output.
+ * Cached card responses are written as their stored JSON ahead of the Jackson converters.
+ */
+@Configuration
+public class ResponseFormatConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public SerializedCardResponseHttpMessageConverter serializedCardResponseHttpMessageConverter(ObjectMapper objectMapper) {
+        return new SerializedCardResponseHttpMessageConverter(objectMapper);
+    }
+}
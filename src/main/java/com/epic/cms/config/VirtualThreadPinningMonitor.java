@@ -0,0 +1,70 @@
+package com.epic.cms.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Streams JFR {@code jdk.VirtualThreadPinned} events and logs where a virtual thread stayed pinned to its
+ * carrier longer than the threshold (typically blocking I/O inside a {@code synchronized} block in the
+ * JDBC driver, the logging appenders or our own code).
+ */
+@Component
+@ConditionalOnProperty(prefix = "cms.diagnostics.pinning", name = "enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_FRAMES = 12;
+
+    @Value("${cms.diagnostics.pinning.threshold-ms:20}")
+    private long thresholdMs;
+
+    private RecordingStream recordingStream;
+
+    @PostConstruct
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::logPinnedEvent);
+        recordingStream.startAsync();
+        logger.info("VirtualThreadPinningMonitor started with threshold {}ms", thresholdMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    private void logPinnedEvent(RecordedEvent event) {
+        StringBuilder trace = new StringBuilder();
+        if (event.getStackTrace() != null) {
+            List<RecordedFrame> frames = event.getStackTrace().getFrames();
+            for (int i = 0; i < Math.min(MAX_FRAMES, frames.size()); i++) {
+                RecordedFrame frame = frames.get(i);
+                trace.append(System.lineSeparator())
+                        .append("    at ")
+                        .append(frame.getMethod().getType().getName())
+                        .append('.')
+                        .append(frame.getMethod().getName())
+                        .append(':')
+                        .append(frame.getLineNumber());
+            }
+        }
+        logger.warn("Virtual thread {} pinned for {}ms{}",
+                event.getThread() != null ? event.getThread().getJavaName() : "?",
+                event.getDuration().toMillis(), trace);
+    }
+}
@@ -0,0 +1,132 @@
+package com.epic.cms.config;
+
+import com.github.luben.zstd.Zstd;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * zstd response compression, which Tomcat does not offer. Applies to GETs under the configured paths
+ * from clients that accept zstd; the response is buffered, and compressed if it is a successful
+ * response of a compressible type at least {@code server.compression.min-response-size} long.
+ * Tomcat's gzip leaves responses that already carry a Content-Encoding alone, so other clients
+ * still get gzip.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@ConditionalOnProperty(prefix = "cms.compression.zstd", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ZstdCompressionFilter extends OncePerRequestFilter {
+
+    private static final String ZSTD = "zstd";
+
+    private final int level;
+    private final long minResponseSize;
+    private final Set<MediaType> mimeTypes;
+    private final List<String> paths;
+    private final Counter compressedBytesIn;
+    private final Counter compressedBytesOut;
+
+    public ZstdCompressionFilter(MeterRegistry meterRegistry,
+                                 @Value("${cms.compression.zstd.level:3}") int level,
+                                 @Value("${cms.compression.zstd.paths:/api/cards,/api/card-requests}") List<String> paths,
+                                 @Value("${server.compression.min-response-size:2KB}") DataSize minResponseSize,
+                                 @Value("${server.compression.mime-types:application/json}") List<String> mimeTypes) {
+        this.level = level;
+        this.paths = paths;
+        this.minResponseSize = minResponseSize.toBytes();
+        this.mimeTypes = mimeTypes.stream().map(MediaType::parseMediaType).collect(Collectors.toSet());
+        this.compressedBytesIn = Counter.builder("cms.compression.zstd.bytes")
+                .tag("side", "uncompressed")
+                .description("Response bytes before and after zstd compression")
+                .register(meterRegistry);
+        this.compressedBytesOut = Counter.builder("cms.compression.zstd.bytes")
+                .tag("side", "compressed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod()) || !acceptsZstd(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return true;
+        }
+        String path = request.getRequestURI();
+        return paths.stream().noneMatch(path::startsWith);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper buffered = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, buffered);
+
+        byte[] body = buffered.getContentAsByteArray();
+        if (!shouldCompress(buffered, body.length)) {
+            buffered.copyBodyToResponse();
+            return;
+        }
+        byte[] compressed = Zstd.compress(body, level);
+        compressedBytesIn.increment(body.length);
+        compressedBytesOut.increment(compressed.length);
+
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, ZSTD);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setContentLength(compressed.length);
+        response.getOutputStream().write(compressed);
+    }
+
+    private boolean shouldCompress(ContentCachingResponseWrapper response, int length) {
+        if (response.getStatus() != HttpServletResponse.SC_OK || length < minResponseSize
+                || response.getHeader(HttpHeaders.CONTENT_ENCODING) != null || response.getContentType() == null) {
+            return false;
+        }
+        MediaType contentType = MediaType.parseMediaType(response.getContentType());
+        return mimeTypes.stream().anyMatch(type -> type.includes(contentType));
+    }
+
+    // True if the header lists zstd without q=0
+    static boolean acceptsZstd(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (!parts[0].trim().equalsIgnoreCase(ZSTD)) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=") && isZeroWeight(parameter.substring(2))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isZeroWeight(String weight) {
+        try {
+            return Double.parseDouble(weight) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
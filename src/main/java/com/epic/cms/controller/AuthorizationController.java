@@ -0,0 +1,110 @@
+package com.epic.cms.controller;
+
+import com.epic.cms.dto.AuthorizationRequestDto;
+import com.epic.cms.dto.AuthorizationResponseDto;
+import com.epic.cms.ledger.CardLedger;
+import com.epic.cms.service.AuthorizationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@CrossOrigin(origins = "http://localhost:5173")
+@RestController
+@RequestMapping("/api/cards/{cardIdentifier}/authorizations")
+@Tag(name = "Authorizations", description = "Holds against a card's available credit and cash limits")
+public class AuthorizationController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthorizationController.class);
+    private final AuthorizationService authorizationService;
+
+    public AuthorizationController(AuthorizationService authorizationService) {
+        this.authorizationService = authorizationService;
+        logger.info("AuthorizationController initialized");
+    }
+
+    @PostMapping
+    @Operation(summary = "Authorize an amount", description = "Place a hold against available credit (and cash, for CASH) if the card is active and has room; otherwise the response is DECLINED with a reason")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Hold placed"),
+        @ApiResponse(responseCode = "200", description = "Authorization declined"),
+        @ApiResponse(responseCode = "400", description = "Invalid amount or type"),
+        @ApiResponse(responseCode = "404", description = "Card not found")
+    })
+    public ResponseEntity<AuthorizationResponseDto> authorize(
+            @Parameter(description = "Card identifier (plain number, masked number, or mask ID)") @PathVariable String cardIdentifier,
+            @Valid @RequestBody AuthorizationRequestDto dto) {
+        String requestId = UUID.randomUUID().toString();
+        MDC.put("requestId", requestId);
+        
+        try {
+            AuthorizationResponseDto result = authorizationService.authorize(cardIdentifier, dto);
+            HttpStatus status = CardLedger.DECLINED.equals(result.getStatus()) ? HttpStatus.OK : HttpStatus.CREATED;
+            return ResponseEntity.status(status).body(result);
+        } catch (Exception e) {
+            logger.warn("POST /api/cards/{}/authorizations - Authorization failed: {}", cardIdentifier, e.getMessage());
+            throw e;
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    @PostMapping("/{authorizationId}/capture")
+    @Operation(summary = "Capture a hold", description = "Make a held amount final; available limits are unchanged")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Hold captured, or a business error if it is no longer held"),
+        @ApiResponse(responseCode = "404", description = "Card or authorization not found")
+    })
+    public ResponseEntity<AuthorizationResponseDto> capture(
+            @Parameter(description = "Card identifier (plain number, masked number, or mask ID)") @PathVariable String cardIdentifier,
+            @PathVariable String authorizationId) {
+        String requestId = UUID.randomUUID().toString();
+        MDC.put("requestId", requestId);
+        
+        try {
+            return ResponseEntity.ok(authorizationService.capture(cardIdentifier, authorizationId));
+        } catch (Exception e) {
+            logger.warn("POST /api/cards/{}/authorizations/{}/capture - Capture failed: {}", cardIdentifier, authorizationId, e.getMessage());
+            throw e;
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    @PostMapping("/{authorizationId}/release")
+    @Operation(summary = "Release a hold", description = "Cancel a held amount and return it to the available limits")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Hold released, or a business error if it is no longer held"),
+        @ApiResponse(responseCode = "404", description = "Card or authorization not found")
+    })
+    public ResponseEntity<AuthorizationResponseDto> release(
+            @Parameter(description = "Card identifier (plain number, masked number, or mask ID)") @PathVariable String cardIdentifier,
+            @PathVariable String authorizationId) {
+        String requestId = UUID.randomUUID().toString();
+        MDC.put("requestId", requestId);
+        
+        try {
+            return ResponseEntity.ok(authorizationService.release(cardIdentifier, authorizationId));
+        } catch (Exception e) {
+            logger.warn("POST /api/cards/{}/authorizations/{}/release - Release failed: {}", cardIdentifier, authorizationId, e.getMessage());
+            throw e;
+        } finally {
+            MDC.clear();
+        }
+    }
+}
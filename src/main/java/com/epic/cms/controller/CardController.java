@@ -1,12 +1,20 @@
 package com.epic.cms.controller;
 
-import com.epic.cms.dto.CardResponseDto;
+import com.epic.cms.cache.SerializedCardResponse;
+import com.epic.cms.dto.CardField;
+import com.epic.cms.dto.CardHistoryDto;
+import com.epic.cms.dto.CardLookupRequestDto;
+import com.epic.cms.dto.CardLookupResultDto;
+import com.epic.cms.dto.CardRequestResponseDto;
+import com.epic.cms.dto.CardSearchCriteria;
 import com.epic.cms.dto.CreateCardDto;
 import com.epic.cms.dto.EncryptedRequest;
+import com.epic.cms.dto.KeysetPage;
 import com.epic.cms.dto.PageResponse;
 import com.epic.cms.dto.UpdateCardDto;
 import com.epic.cms.exception.ResourceNotFoundException;
 import com.epic.cms.model.Card;
+import com.epic.cms.service.CardRequestService;
 import com.epic.cms.service.CardService;
 import com.epic.cms.service.PayloadDecryptionService;
 import com.epic.cms.util.CardNumberResolver;
@@ -19,12 +27,17 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @CrossOrigin(origins = "http://localhost:5173")
@@ -37,11 +50,14 @@ public class CardController {
     private final CardService service;
     private final CardNumberResolver cardNumberResolver;
     private final PayloadDecryptionService decryptionService;
+    private final CardRequestService cardRequestService;
 
-    public CardController(CardService service, CardNumberResolver cardNumberResolver, PayloadDecryptionService decryptionService) {
+    public CardController(CardService service, CardNumberResolver cardNumberResolver, PayloadDecryptionService decryptionService,
+                          CardRequestService cardRequestService) {
         this.service = service;
         this.cardNumberResolver = cardNumberResolver;
         this.decryptionService = decryptionService;
+        this.cardRequestService = cardRequestService;
         logger.info("CardController initialized");
     }
 
@@ -50,7 +66,7 @@ public class CardController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved list of cards")
     })
-    public ResponseEntity<List<CardResponseDto>> getAll() {
+    public ResponseEntity<List<SerializedCardResponse>> getAll() {
         String requestId = UUID.randomUUID().toString();
         MDC.put("requestId", requestId);
         
@@ -58,7 +74,7 @@ public class CardController {
         long startTime = System.currentTimeMillis();
         
         try {
-            List<CardResponseDto> cards = service.getAllCards();
+            List<SerializedCardResponse> cards = service.getAllCards();
             long duration = System.currentTimeMillis() - startTime;
             
             logger.info("GET /api/cards - Successfully retrieved {} cards in {}ms", cards.size(), duration);
@@ -76,17 +92,20 @@ public class CardController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved paginated list of cards")
     })
-    public ResponseEntity<PageResponse<CardResponseDto>> getAllPaginated(
+    public ResponseEntity<PageResponse<SerializedCardResponse>> getAllPaginated(
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size) {
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Comma-separated card fields to return, e.g. cardNumber,maskId,statusCode; all when omitted")
+            @RequestParam(required = false) String fields) {
+        Set<CardField> cardFields = CardField.parse(fields);
         String requestId = UUID.randomUUID().toString();
         MDC.put("requestId", requestId);
         
-        logger.info("GET /api/cards/paginated - Retrieving cards with page={}, size={}", page, size);
+        logger.info("GET /api/cards/paginated - Retrieving cards with page={}, size={}, fields={}", page, size, fields);
         long startTime = System.currentTimeMillis();
         
         try {
-            PageResponse<CardResponseDto> response = service.getAllCards(page, size);
+            PageResponse<SerializedCardResponse> response = service.getAllCards(page, size, cardFields);
             long duration = System.currentTimeMillis() - startTime;
             
             logger.info("GET /api/cards/paginated - Successfully retrieved {} cards (page {}/{}, total {}) in {}ms", 
@@ -101,13 +120,59 @@ public class CardController {
         }
     }
 
+    @GetMapping("/search")
+    @Operation(summary = "Search cards", description = "Filter cards by status, expiry window, credit limit range and last update, with cursor pagination")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved matching cards")
+    })
+    public ResponseEntity<KeysetPage<SerializedCardResponse>> search(
+            @Parameter(description = "Card status code") @RequestParam(required = false) String statusCode,
+            @Parameter(description = "Earliest expiry date (inclusive)") 
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiryAfter,
+            @Parameter(description = "Latest expiry date (inclusive)") 
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiryBefore,
+            @Parameter(description = "Minimum credit limit") @RequestParam(required = false) BigDecimal minCreditLimit,
+            @Parameter(description = "Maximum credit limit") @RequestParam(required = false) BigDecimal maxCreditLimit,
+            @Parameter(description = "Only cards updated at or after this time") 
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+            @Parameter(description = "Cursor from the previous page's nextCursor") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        String requestId = UUID.randomUUID().toString();
+        MDC.put("requestId", requestId);
+        
+        CardSearchCriteria criteria = new CardSearchCriteria();
+        criteria.setStatusCode(statusCode);
+        criteria.setExpiryAfter(expiryAfter);
+        criteria.setExpiryBefore(expiryBefore);
+        criteria.setMinCreditLimit(minCreditLimit);
+        criteria.setMaxCreditLimit(maxCreditLimit);
+        criteria.setUpdatedSince(updatedSince);
+        
+        logger.info("GET /api/cards/search - Searching cards with {}, size={}", criteria, size);
+        long startTime = System.currentTimeMillis();
+        
+        try {
+            KeysetPage<SerializedCardResponse> response = service.searchCards(criteria, cursor, size);
+            long duration = System.currentTimeMillis() - startTime;
+            
+            logger.info("GET /api/cards/search - Successfully retrieved {} cards in {}ms, hasMore={}", 
+                       response.getContent().size(), duration, response.isHasMore());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("GET /api/cards/search - Error searching cards: {}", e.getMessage(), e);
+            throw e;
+        } finally {
+            MDC.clear();
+        }
+    }
+
     @GetMapping("/{cardIdentifier}")
     @Operation(summary = "Get card by identifier", description = "Retrieve a card by plain number, masked number, or mask ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved card"),
         @ApiResponse(responseCode = "404", description = "Card not found")
     })
-    public ResponseEntity<CardResponseDto> getByIdentifier(
+    public ResponseEntity<SerializedCardResponse> getByIdentifier(
             @Parameter(description = "Card identifier (plain number, masked number, or mask ID)") 
             @PathVariable String cardIdentifier) {
         String requestId = UUID.randomUUID().toString();
@@ -124,7 +189,7 @@ public class CardController {
                 throw new ResourceNotFoundException("Card not found: " + cardIdentifier);
             }
             
-            CardResponseDto response = service.getByCardNumber(card.get().getCardNumber());
+            SerializedCardResponse response = service.getByCardNumber(card.get().getCardNumber());
             long duration = System.currentTimeMillis() - startTime;
             
             logger.info("GET /api/cards/{} - Successfully retrieved card {} in {}ms", 
@@ -141,6 +206,109 @@ public class CardController {
         }
     }
 
+    @PostMapping("/lookup")
+    @Operation(summary = "Look up many cards", description = "Resolve a list of plain numbers, masked numbers and mask IDs in one call; results follow input order")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lookup completed, with a not-found marker for each unresolved identifier")
+    })
+    public ResponseEntity<List<CardLookupResultDto>> lookup(@Valid @RequestBody EncryptedRequest encryptedRequest) {
+        String requestId = UUID.randomUUID().toString();
+        MDC.put("requestId", requestId);
+        
+        logger.info("POST /api/cards/lookup - Looking up cards from encrypted payload");
+        long startTime = System.currentTimeMillis();
+        
+        try {
+            CardLookupRequestDto dto = decryptionService.decryptToObject(encryptedRequest.getPayload(), CardLookupRequestDto.class);
+            
+            List<CardLookupResultDto> results = service.lookupCards(dto.getIdentifiers());
+            long duration = System.currentTimeMillis() - startTime;
+            
+            logger.info("POST /api/cards/lookup - Looked up {} identifiers ({} found) in {}ms", results.size(),
+                       results.stream().filter(CardLookupResultDto::isFound).count(), duration);
+            return ResponseEntity.ok(results);
+        } catch (RuntimeException e) {
+            logger.error("POST /api/cards/lookup - Error looking up cards: {}", e.getMessage(), e);
+            throw e;
+        } catch (Exception e) {
+            logger.error("POST /api/cards/lookup - Could not decrypt lookup payload: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().build();
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    @GetMapping("/{cardIdentifier}/requests")
+    @Operation(summary = "Get a card's request history", description = "Retrieve a card's requests, newest first, with cursor pagination")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved request history"),
+        @ApiResponse(responseCode = "404", description = "Card not found")
+    })
+    public ResponseEntity<KeysetPage<CardRequestResponseDto>> getRequestHistory(
+            @Parameter(description = "Card identifier (plain number, masked number, or mask ID)") 
+            @PathVariable String cardIdentifier,
+            @Parameter(description = "Request status code (PENDING, APPROVED, REJECTED)") @RequestParam(required = false) String statusCode,
+            @Parameter(description = "Cursor from the previous page's nextCursor") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        String requestId = UUID.randomUUID().toString();
+        MDC.put("requestId", requestId);
+        
+        logger.info("GET /api/cards/{}/requests - Retrieving request history, statusCode={}, size={}", cardIdentifier, statusCode, size);
+        long startTime = System.currentTimeMillis();
+        
+        try {
+            KeysetPage<CardRequestResponseDto> response = cardRequestService.getRequestsForCard(cardIdentifier, statusCode, cursor, size);
+            long duration = System.currentTimeMillis() - startTime;
+            
+            logger.info("GET /api/cards/{}/requests - Successfully retrieved {} requests in {}ms, hasMore={}", 
+                       cardIdentifier, response.getContent().size(), duration, response.isHasMore());
+            return ResponseEntity.ok(response);
+        } catch (ResourceNotFoundException e) {
+            logger.warn("GET /api/cards/{}/requests - Card not found: {}", cardIdentifier, e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("GET /api/cards/{}/requests - Error retrieving request history: {}", cardIdentifier, e.getMessage(), e);
+            throw e;
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    @GetMapping("/{cardIdentifier}/history")
+    @Operation(summary = "Get a card's change history", description = "Retrieve the card's recorded changes as field diffs, newest first, with cursor pagination")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved change history"),
+        @ApiResponse(responseCode = "404", description = "Card not found")
+    })
+    public ResponseEntity<KeysetPage<CardHistoryDto>> getHistory(
+            @Parameter(description = "Card identifier (plain number, masked number, or mask ID)") 
+            @PathVariable String cardIdentifier,
+            @Parameter(description = "Cursor from the previous page's nextCursor") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        String requestId = UUID.randomUUID().toString();
+        MDC.put("requestId", requestId);
+        
+        logger.info("GET /api/cards/{}/history - Retrieving change history, size={}", cardIdentifier, size);
+        long startTime = System.currentTimeMillis();
+        
+        try {
+            KeysetPage<CardHistoryDto> response = service.getCardHistory(cardIdentifier, cursor, size);
+            long duration = System.currentTimeMillis() - startTime;
+            
+            logger.info("GET /api/cards/{}/history - Successfully retrieved {} entries in {}ms, hasMore={}", 
+                       cardIdentifier, response.getContent().size(), duration, response.isHasMore());
+            return ResponseEntity.ok(response);
+        } catch (ResourceNotFoundException e) {
+            logger.warn("GET /api/cards/{}/history - Card not found: {}", cardIdentifier, e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("GET /api/cards/{}/history - Error retrieving change history: {}", cardIdentifier, e.getMessage(), e);
+            throw e;
+        } finally {
+            MDC.clear();
+        }
+    }
+
     @PutMapping("/{cardIdentifier}")
     @Operation(summary = "Update card", description = "Update card details by identifier")
     @ApiResponses(value = {
@@ -0,0 +1,40 @@
+package com.epic.cms.controller;
+
+import com.epic.cms.event.ChangeEventBroadcaster;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@CrossOrigin(origins = "http://localhost:5173")
+@RestController
+@RequestMapping("/api/events")
+@Tag(name = "Change Events", description = "Server-Sent Events stream of card and card request changes")
+public class EventStreamController {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventStreamController.class);
+    private final ChangeEventBroadcaster broadcaster;
+
+    public EventStreamController(ChangeEventBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+        logger.info("EventStreamController initialized");
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Subscribe to changes", description = "Stream card creates, updates and status transitions, and card request creation and processing. An 'overflow' event reports events dropped for a slow client.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Event stream opened")
+    })
+    public SseEmitter subscribe() {
+        logger.info("GET /api/events - Opening event stream");
+        return broadcaster.subscribe();
+    }
+}
@@ -0,0 +1,54 @@
+package com.epic.cms.controller;
+
+import com.epic.cms.dto.StatsResponseDto;
+import com.epic.cms.service.StatusCounterService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@CrossOrigin(origins = "http://localhost:5173")
+@RestController
+@RequestMapping("/api/stats")
+@Tag(name = "Statistics", description = "Dashboard counters for cards and card requests")
+public class StatsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatsController.class);
+    private final StatusCounterService statusCounterService;
+
+    public StatsController(StatusCounterService statusCounterService) {
+        this.statusCounterService = statusCounterService;
+        logger.info("StatsController initialized");
+    }
+
+    @GetMapping
+    @Operation(summary = "Get status counts", description = "Cards per status and requests per status and type, from incrementally maintained counters")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved counters")
+    })
+    public ResponseEntity<StatsResponseDto> getStats() {
+        String requestId = UUID.randomUUID().toString();
+        MDC.put("requestId", requestId);
+        
+        try {
+            StatsResponseDto stats = statusCounterService.getStats();
+            logger.debug("GET /api/stats - totalCards={}, totalRequests={}", stats.getTotalCards(), stats.getTotalRequests());
+            return ResponseEntity.ok(stats);
+        } catch (Exception e) {
+            logger.error("GET /api/stats - Error retrieving counters: {}", e.getMessage(), e);
+            throw e;
+        } finally {
+            MDC.clear();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.epic.cms.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class AuthorizationRequestDto {
+
+    @NotNull
+    @DecimalMin(value = "0.01", message = "Amount must be positive")
+    @Digits(integer = 13, fraction = 2, message = "Amount must have at most two decimal places")
+    private BigDecimal amount;
+
+    @NotBlank
+    @Pattern(regexp = "^(CREDIT|CASH)$", message = "Authorization type must be CREDIT or CASH")
+    private String authType;    // CREDIT (purchase) / CASH (withdrawal, also counts against credit)
+}
@@ -0,0 +1,20 @@
+package com.epic.cms.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AuthorizationResponseDto {
+    private String authorizationId;         // null when declined
+    private String authType;
+    private BigDecimal amount;
+    private String status;                  // HELD / CAPTURED / RELEASED / DECLINED
+    private String declineReason;           // CARD_NOT_ACTIVE / CARD_EXPIRED / INSUFFICIENT_CREDIT / INSUFFICIENT_CASH
+    private BigDecimal availableCreditLimit;
+    private BigDecimal availableCashLimit;
+}
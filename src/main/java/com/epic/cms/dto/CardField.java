@@ -0,0 +1,81 @@
+package com.epic.cms.dto;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The fields of {@link CardResponseDto} a client can ask for with {@code fields=}, and the card
+ * column each one is read from. Both number fields come from the ciphertext: cardNumber is masked
+ * from it, maskId hashed from it.
+ */
+public enum CardField {
+
+    CARD_NUMBER("cardNumber", "card_number"),
+    MASK_ID("maskId", "card_number"),
+    EXPIRY_DATE("expiryDate", "expiry_date"),
+    STATUS_CODE("statusCode", "status_code"),
+    CREDIT_LIMIT("creditLimit", "credit_limit"),
+    CASH_LIMIT("cashLimit", "cash_limit"),
+    AVAILABLE_CREDIT_LIMIT("availableCreditLimit", "available_credit_limit"),
+    AVAILABLE_CASH_LIMIT("availableCashLimit", "available_cash_limit"),
+    LAST_UPDATE_TIME("lastUpdateTime", "last_update_time");
+
+    public static final Set<CardField> ALL = Collections.unmodifiableSet(EnumSet.allOf(CardField.class));
+
+    private static final Map<String, CardField> BY_NAME = ALL.stream()
+            .collect(Collectors.toMap(CardField::getFieldName, field -> field, (a, b) -> a, LinkedHashMap::new));
+
+    private final String fieldName;
+    private final String column;
+
+    CardField(String fieldName, String column) {
+        this.fieldName = fieldName;
+        this.column = column;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    /**
+     * Parses a comma-separated list of field names; null or blank means every field.
+     */
+    public static Set<CardField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<CardField> parsed = EnumSet.noneOf(CardField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            CardField field = BY_NAME.get(trimmed);
+            if (field == null) {
+                throw new IllegalArgumentException("Unknown card field '" + trimmed + "'; expected any of "
+                        + String.join(", ", BY_NAME.keySet()));
+            }
+            parsed.add(field);
+        }
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("fields must name at least one card field");
+        }
+        return parsed;
+    }
+
+    // SELECT list covering the fields, each column once
+    public static String columns(Set<CardField> fields) {
+        Set<String> columns = new LinkedHashSet<>();
+        fields.forEach(field -> columns.add(field.column));
+        return String.join(", ", columns);
+    }
+
+    public static boolean needsCardNumber(Set<CardField> fields) {
+        return fields.contains(CARD_NUMBER) || fields.contains(MASK_ID);
+    }
+}
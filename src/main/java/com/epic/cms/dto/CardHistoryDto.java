@@ -0,0 +1,15 @@
+package com.epic.cms.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class CardHistoryDto {
+    private Long historyId;
+    private String changeType;
+    @JsonRawValue
+    private String changes;             // stored JSON diff, emitted as-is
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,10 @@
+package com.epic.cms.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CardLookupRequestDto {
+    private List<String> identifiers; // plain numbers, masked numbers or mask ids, in any mix
+}
@@ -0,0 +1,14 @@
+package com.epic.cms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardLookupResultDto {
+    private String identifier;
+    private boolean found;
+    private CardResponseDto card; // null when not found
+}
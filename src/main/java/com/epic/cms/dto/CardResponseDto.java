@@ -1,11 +1,14 @@
 package com.epic.cms.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+// Fields left out with fields= are null and omitted; every field of a full response is non-null
 @Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class CardResponseDto {
     private String cardNumber; // This will contain the masked card number
     private String maskId;
@@ -0,0 +1,17 @@
+package com.epic.cms.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+public class CardSearchCriteria {
+    private String statusCode;
+    private LocalDate expiryAfter;           // inclusive
+    private LocalDate expiryBefore;          // inclusive
+    private BigDecimal minCreditLimit;
+    private BigDecimal maxCreditLimit;
+    private LocalDateTime updatedSince;
+}
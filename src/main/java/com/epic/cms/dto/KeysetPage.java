@@ -0,0 +1,19 @@
+package com.epic.cms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPage<T> {
+    private List<T> content;
+    private int pageSize;
+    private String nextCursor; // opaque; pass back as "cursor" to fetch the following page, null on the last page
+    private boolean hasMore;
+}
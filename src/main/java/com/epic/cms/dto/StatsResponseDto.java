@@ -0,0 +1,14 @@
+package com.epic.cms.dto;
+
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+public class StatsResponseDto {
+    private Map<String, Long> cardsByStatus;
+    private Map<String, Long> requestsByStatus;
+    private Map<String, Long> pendingRequestsByType;
+    private long totalCards;
+    private long totalRequests;
+}
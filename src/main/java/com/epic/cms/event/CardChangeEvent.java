@@ -0,0 +1,60 @@
+package com.epic.cms.event;
+
+import com.epic.cms.util.CardNumberUtils;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A committed change to a card or card request, published by the services inside the writing
+ * transaction. Only masked identifiers leave the process; the card id and encrypted number are
+ * for internal listeners.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CardChangeEvent {
+
+    public enum ChangeType {
+        CARD_CREATED,
+        CARD_UPDATED,
+        CARD_STATUS_CHANGED,
+        REQUEST_CREATED,
+        REQUEST_PROCESSED
+    }
+
+    private ChangeType type;
+    @JsonIgnore
+    private Long cardId;
+    @JsonIgnore
+    private String cardNumber;          // encrypted
+    private String maskId;
+    private String maskedCardNumber;
+    private String statusCode;          // card status, or request status for REQUEST_* events
+    private String previousStatusCode;
+    private LocalDate expiryDate;
+    private LocalDate previousExpiryDate;
+    private BigDecimal creditLimit;
+    private BigDecimal cashLimit;
+    private BigDecimal previousCreditLimit;
+    private BigDecimal previousCashLimit;
+    private Long requestId;
+    private String requestReasonCode;
+    private LocalDateTime occurredAt;
+
+    public static CardChangeEventBuilder forCard(ChangeType type, Long cardId, String plainCardNumber,
+                                                 String encryptedCardNumber) {
+        return builder()
+                .type(type)
+                .cardId(cardId)
+                .cardNumber(encryptedCardNumber)
+                .maskId(CardNumberUtils.generateMaskId(plainCardNumber))
+                .maskedCardNumber(CardNumberUtils.maskCardNumber(plainCardNumber))
+                .occurredAt(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,274 @@
+package com.epic.cms.event;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans committed {@link CardChangeEvent}s out to Server-Sent Events subscribers.
+ * <p>
+ * Publishing never blocks on a client: each subscriber has a bounded buffer that drops its oldest
+ * event when full, and is drained by at most one executor task at a time. A subscriber that lost
+ * events is told how many with an {@code overflow} event before the next delivery, so it can
+ * refetch instead of trusting a gapped stream.
+ * <p>
+ * Drains run on a dedicated pool of {@code cms.events.sse.sender-threads} threads rather than the
+ * shared application executor, so clients stuck in a blocking send can only slow other
+ * subscribers, never request or job work. A send still blocked after
+ * {@code cms.events.sse.send-timeout-ms} ends its subscriber: the sender thread is interrupted and
+ * the pool gets an extra thread until that send returns, so dead peers cannot hold every sender
+ * thread. The stream is completed by the sender once the send returns, because completing it
+ * meanwhile would wait on the same blocked write.
+ */
+@Component
+public class ChangeEventBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeEventBroadcaster.class);
+
+    private final ThreadPoolExecutor senderExecutor;
+    private final int bufferSize;
+    private final int senderThreads;
+    private final long timeoutMs;
+    private final long sendTimeoutNanos;
+    private final Semaphore subscriberSlots;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong stalled = new AtomicLong();
+    private int abandonedSends;
+
+    public ChangeEventBroadcaster(MeterRegistry meterRegistry,
+                                  @Value("${cms.events.sse.buffer-size:256}") int bufferSize,
+                                  @Value("${cms.events.sse.max-subscribers:1000}") int maxSubscribers,
+                                  @Value("${cms.events.sse.timeout-ms:1800000}") long timeoutMs,
+                                  @Value("${cms.events.sse.sender-threads:8}") int senderThreads,
+                                  @Value("${cms.events.sse.send-timeout-ms:5000}") long sendTimeoutMs) {
+        // A subscriber has at most one drain queued or running, so the queue never needs more room.
+        // The pool only grows past sender-threads to stand in for sends abandoned as stalled, at
+        // most one per subscriber.
+        this.senderExecutor = new ThreadPoolExecutor(senderThreads, senderThreads + maxSubscribers,
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(maxSubscribers),
+                Thread.ofPlatform().daemon().name("cms-sse-sender-", 0).factory());
+        this.bufferSize = bufferSize;
+        this.senderThreads = senderThreads;
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        this.subscriberSlots = new Semaphore(maxSubscribers);
+
+        Gauge.builder("cms.events.subscribers", subscribers, List::size)
+                .description("Connected Server-Sent Events subscribers")
+                .register(meterRegistry);
+        FunctionCounter.builder("cms.events.dropped", dropped, AtomicLong::get)
+                .description("Events dropped from full subscriber buffers")
+                .register(meterRegistry);
+        FunctionCounter.builder("cms.events.stalled", stalled, AtomicLong::get)
+                .description("Subscribers disconnected because a send exceeded the send timeout")
+                .register(meterRegistry);
+        Gauge.builder("cms.events.sender.queued", senderExecutor, executor -> executor.getQueue().size())
+                .description("Subscriber drains waiting for a sender thread")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        senderExecutor.shutdownNow();
+    }
+
+    public SseEmitter subscribe() {
+        // The slot is taken before the subscriber is added, so concurrent subscribes cannot overshoot
+        if (!subscriberSlots.tryAcquire()) {
+            throw new IllegalStateException("Too many event stream subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscribers.add(subscriber);
+        logger.info("Event stream subscriber added, {} connected", subscribers.size());
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onChange(CardChangeEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        // Built once and shared: every subscriber sends the same serialized frame
+        Set<ResponseBodyEmitter.DataWithMediaType> message = SseEmitter.event()
+                .id(String.valueOf(sequence.incrementAndGet()))
+                .name(event.getType().name())
+                .data(event, MediaType.APPLICATION_JSON)
+                .build();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(message);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cms.events.sse.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        Set<ResponseBodyEmitter.DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(ping);
+        }
+    }
+
+    // Checked once per send timeout, so a stalled send is abandoned within twice the timeout
+    @Scheduled(fixedDelayString = "${cms.events.sse.send-timeout-ms:5000}")
+    public void abortStalledSends() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.abortIfStalled(now);
+        }
+    }
+
+    private synchronized void adjustAbandonedSends(int delta) {
+        abandonedSends += delta;
+        senderExecutor.setCorePoolSize(senderThreads + abandonedSends);
+    }
+
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+        private final ArrayDeque<Set<ResponseBodyEmitter.DataWithMediaType>> buffer = new ArrayDeque<>();
+        private long droppedSinceLastSend;
+        private boolean draining;
+        // The drain thread while it is inside a send, and when that send started
+        private Thread sender;
+        private long sendStartedNanos;
+        private boolean abandoned;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        // Runs once per subscriber, however it ends, and gives its slot back
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                subscribers.remove(this);
+                subscriberSlots.release();
+            }
+        }
+
+        void offer(Set<ResponseBodyEmitter.DataWithMediaType> message) {
+            if (closed.get()) {
+                return;
+            }
+            synchronized (this) {
+                if (buffer.size() >= bufferSize) {
+                    buffer.pollFirst();
+                    droppedSinceLastSend++;
+                    dropped.incrementAndGet();
+                }
+                buffer.addLast(message);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            try {
+                senderExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Only happens while shutting down; let a later offer retry if the pool is still up
+                synchronized (this) {
+                    draining = false;
+                }
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Set<ResponseBodyEmitter.DataWithMediaType> message;
+                long lost;
+                synchronized (this) {
+                    message = buffer.pollFirst();
+                    if (message == null) {
+                        draining = false;
+                        return;
+                    }
+                    lost = droppedSinceLastSend;
+                    droppedSinceLastSend = 0;
+                }
+                boolean timedOut;
+                try {
+                    startSend();
+                    if (lost > 0) {
+                        emitter.send(SseEmitter.event().name("overflow").data(lost));
+                    }
+                    emitter.send(message);
+                } catch (IOException | IllegalStateException e) {
+                    logger.debug("Event stream subscriber gone: {}", e.getMessage());
+                    close();
+                    emitter.completeWithError(e);
+                } finally {
+                    timedOut = endSend();
+                }
+                if (timedOut) {
+                    adjustAbandonedSends(-1);
+                    emitter.completeWithError(new IOException("Event stream send timed out"));
+                }
+                if (closed.get()) {
+                    synchronized (this) {
+                        buffer.clear();
+                        draining = false;
+                    }
+                    return;
+                }
+            }
+        }
+
+        private synchronized void startSend() {
+            sender = Thread.currentThread();
+            sendStartedNanos = System.nanoTime();
+        }
+
+        // Also clears an interrupt from abortIfStalled, so it cannot reach the next subscriber this
+        // thread drains. Returns whether the send was abandoned as stalled.
+        private synchronized boolean endSend() {
+            sender = null;
+            Thread.interrupted();
+            return abandoned;
+        }
+
+        // Never touches the emitter: completing it would wait on the write lock the stalled send holds
+        void abortIfStalled(long now) {
+            synchronized (this) {
+                if (sender == null || abandoned || now - sendStartedNanos < sendTimeoutNanos) {
+                    return;
+                }
+                abandoned = true;
+                adjustAbandonedSends(1);
+                sender.interrupt();
+            }
+            logger.warn("Event stream subscriber stalled for over {}ms in a send; disconnecting it",
+                    TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos));
+            stalled.incrementAndGet();
+            close();
+        }
+    }
+}
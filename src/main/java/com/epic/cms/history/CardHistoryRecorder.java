@@ -0,0 +1,223 @@
+package com.epic.cms.history;
+
+import com.epic.cms.event.CardChangeEvent;
+import com.epic.cms.model.CardHistory;
+import com.epic.cms.repository.CardHistoryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turns card {@link CardChangeEvent}s into {@code card_history} diff rows.
+ * <p>
+ * In {@code ASYNC} mode (default) a row is queued only once the change commits and a background
+ * writer flushes the queue in multi-row inserts, so the request path never waits on the audit
+ * insert; rows still queued when the process dies are lost. {@code SYNC} mode inserts the row in
+ * the service's transaction instead. A full queue also falls back to a synchronous insert rather
+ * than dropping the row.
+ */
+@Component
+public class CardHistoryRecorder {
+
+    public enum Durability { ASYNC, SYNC }
+
+    private static final Logger logger = LoggerFactory.getLogger(CardHistoryRecorder.class);
+
+    private final CardHistoryRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Durability durability;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final BlockingQueue<CardHistory> queue;
+    private final Counter written;
+    private final Counter failed;
+    private final Counter overflow;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public CardHistoryRecorder(CardHistoryRepository repository, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                               @Value("${cms.history.durability:ASYNC}") Durability durability,
+                               @Value("${cms.history.queue-capacity:50000}") int queueCapacity,
+                               @Value("${cms.history.batch-size:500}") int batchSize,
+                               @Value("${cms.history.flush-interval-ms:200}") long flushIntervalMs) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.durability = durability;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.written = Counter.builder("cms.history.written").register(meterRegistry);
+        this.failed = Counter.builder("cms.history.failed")
+                .description("History rows lost after the writer gave up on a batch")
+                .register(meterRegistry);
+        this.overflow = Counter.builder("cms.history.overflow")
+                .description("History rows written synchronously because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("cms.history.queued", queue, BlockingQueue::size).register(meterRegistry);
+        logger.info("CardHistoryRecorder initialized in {} mode", durability);
+    }
+
+    // Synchronous listener: SYNC rows join the service's transaction
+    @EventListener
+    public void onChange(CardChangeEvent event) {
+        CardHistory entry = toHistory(event);
+        if (entry == null) {
+            return;
+        }
+        if (durability == Durability.SYNC) {
+            repository.insertAll(List.of(entry));
+            written.increment();
+        } else if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(entry);
+                }
+            });
+        } else {
+            enqueue(entry);
+        }
+    }
+
+    private void enqueue(CardHistory entry) {
+        if (queue.offer(entry)) {
+            return;
+        }
+        overflow.increment();
+        try {
+            repository.insertAll(List.of(entry));
+            written.increment();
+        } catch (Exception e) {
+            failed.increment();
+            logger.error("History queue full and synchronous insert failed for {}: {}", entry.getChangeType(), e.getMessage(), e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (durability == Durability.ASYNC) {
+            running = true;
+            writerThread = Thread.ofPlatform().daemon().name("cms-history-writer").start(this::writeLoop);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writerThread != null) {
+            writerThread.interrupt();
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        // Whatever is left goes out on the shutdown thread
+        List<CardHistory> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeLoop() {
+        List<CardHistory> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                CardHistory first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void flush(List<CardHistory> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                repository.insertAll(batch);
+                written.increment(batch.size());
+                return;
+            } catch (Exception e) {
+                if (attempt == 3) {
+                    failed.increment(batch.size());
+                    logger.error("Dropping {} history rows after {} failed inserts: {}", batch.size(), attempt, e.getMessage(), e);
+                    return;
+                }
+                logger.warn("History insert of {} rows failed (attempt {}), retrying: {}", batch.size(), attempt, e.getMessage());
+                try {
+                    Thread.sleep(flushIntervalMs * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private CardHistory toHistory(CardChangeEvent event) {
+        ObjectNode changes = objectMapper.createObjectNode();
+        switch (event.getType()) {
+            case CARD_CREATED -> {
+                diff(changes, "statusCode", null, event.getStatusCode());
+                diff(changes, "expiryDate", null, event.getExpiryDate());
+                diff(changes, "creditLimit", null, event.getCreditLimit());
+                diff(changes, "cashLimit", null, event.getCashLimit());
+            }
+            case CARD_UPDATED -> {
+                diff(changes, "expiryDate", event.getPreviousExpiryDate(), event.getExpiryDate());
+                diff(changes, "creditLimit", event.getPreviousCreditLimit(), event.getCreditLimit());
+                diff(changes, "cashLimit", event.getPreviousCashLimit(), event.getCashLimit());
+            }
+            case CARD_STATUS_CHANGED -> diff(changes, "statusCode", event.getPreviousStatusCode(), event.getStatusCode());
+            default -> {
+                return null;
+            }
+        }
+        if (changes.isEmpty()) {
+            return null;
+        }
+        return CardHistory.builder()
+                .cardId(event.getCardId())
+                .changeType(event.getType().name())
+                .changes(changes.toString())
+                .changedAt(event.getOccurredAt())
+                .build();
+    }
+
+    private void diff(ObjectNode changes, String field, Object oldValue, Object newValue) {
+        // Limits from a request body and from the database differ in scale (2000 vs 2000.00)
+        boolean unchanged = oldValue instanceof BigDecimal oldAmount && newValue instanceof BigDecimal newAmount
+                ? oldAmount.compareTo(newAmount) == 0
+                : Objects.equals(oldValue, newValue);
+        if (unchanged) {
+            return;
+        }
+        ArrayNode pair = changes.putArray(field);
+        pair.add(objectMapper.valueToTree(oldValue));
+        pair.add(objectMapper.valueToTree(newValue));
+    }
+}
@@ -0,0 +1,170 @@
+package com.epic.cms.job;
+
+import com.epic.cms.cache.CacheInvalidationBus;
+import com.epic.cms.model.Card;
+import com.epic.cms.repository.CardRepository;
+import com.epic.cms.service.CardEncryptionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves stored card numbers onto the active encryption key after a key rotation.
+ * <p>
+ * Runs only while retired keys are still configured, on the elected instance. Cards not under the
+ * active key are streamed in {@code card_id} keyset order, each page is re-encrypted in parallel
+ * on a small dedicated pool, and the new numbers are written in transactions of
+ * {@code transaction-size} cards. Other tables reference cards by {@code card_id}, so each
+ * transaction touches the {@code card} rows alone. Writes are paced to {@code max-cards-per-second}
+ * so online traffic keeps its connections and row locks; lookups try every configured key meanwhile.
+ * A failed or interrupted run resumes on the next one, since finished cards no longer match.
+ */
+@Component
+public class CardKeyRotationJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(CardKeyRotationJob.class);
+
+    private final CardRepository cardRepository;
+    private final CardEncryptionService encryptionService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<CacheInvalidationBus> invalidationBus;
+    private final JobRunner jobRunner;
+    private final ForkJoinPool encryptionPool;
+    private final int pageSize;
+    private final int transactionSize;
+    private final int maxCardsPerSecond;
+    private final Counter rekeyed;
+    private final AtomicLong remaining = new AtomicLong();
+    private volatile boolean complete;
+
+    public CardKeyRotationJob(CardRepository cardRepository, CardEncryptionService encryptionService,
+                              ObjectProvider<CacheInvalidationBus> invalidationBus, JobRunner jobRunner,
+                              PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                              @Value("${cms.jobs.key-rotation.page-size:1000}") int pageSize,
+                              @Value("${cms.jobs.key-rotation.transaction-size:100}") int transactionSize,
+                              @Value("${cms.jobs.key-rotation.parallelism:2}") int parallelism,
+                              @Value("${cms.jobs.key-rotation.max-cards-per-second:2000}") int maxCardsPerSecond) {
+        this.cardRepository = cardRepository;
+        this.encryptionService = encryptionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.invalidationBus = invalidationBus;
+        this.jobRunner = jobRunner;
+        this.encryptionPool = new ForkJoinPool(parallelism);
+        this.pageSize = pageSize;
+        this.transactionSize = transactionSize;
+        this.maxCardsPerSecond = maxCardsPerSecond;
+        this.rekeyed = Counter.builder("cms.jobs.key-rotation.rekeyed")
+                .description("Cards moved onto the active encryption key")
+                .register(meterRegistry);
+        Gauge.builder("cms.jobs.key-rotation.remaining", remaining, AtomicLong::get)
+                .description("Cards still under a retired key at the end of the last run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${cms.jobs.key-rotation.initial-delay-ms:30000}",
+               fixedDelayString = "${cms.jobs.key-rotation.interval-ms:60000}")
+    public void rotate() {
+        if (complete || !encryptionService.hasRetiredKeys()) {
+            return;
+        }
+        jobRunner.runIfLeader("card-key-rotation", this::rotateAll);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        encryptionPool.shutdownNow();
+    }
+
+    // Failures propagate to the job runner, which records them; the next run starts over and
+    // only finds the cards not yet moved
+    private void rotateAll() {
+        String activePrefix = encryptionService.getActivePrefix();
+        long startTime = System.currentTimeMillis();
+        long total = 0;
+        long after = 0L;
+        try {
+            List<Card> page;
+            do {
+                page = cardRepository.findCardNumbersNotUnderKey(activePrefix, after, pageSize);
+                if (page.isEmpty()) {
+                    break;
+                }
+                after = page.get(page.size() - 1).getCardId();
+
+                List<Object[]> newAndOld = reencrypt(page);
+                for (int from = 0; from < newAndOld.size(); from += transactionSize) {
+                    List<Object[]> chunk = newAndOld.subList(from, Math.min(from + transactionSize, newAndOld.size()));
+                    total += rekey(chunk);
+                    throttle(startTime, total);
+                }
+            } while (page.size() == pageSize);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Key rotation interrupted after {} cards", total);
+        } finally {
+            remaining.set(cardRepository.countNotUnderKey(activePrefix));
+            logger.info("Key rotation moved {} cards in {}ms, {} cards still under a retired key",
+                    total, System.currentTimeMillis() - startTime, remaining.get());
+        }
+
+        if (remaining.get() == 0) {
+            complete = true;
+            logger.info("All cards are under the active key; retired keys can be removed from cms.security.encryption.card-keys");
+        }
+    }
+
+    private List<Object[]> reencrypt(List<Card> page) throws InterruptedException {
+        try {
+            return encryptionPool.submit(() -> page.parallelStream()
+                    .map(Card::getCardNumber)
+                    .map(oldNumber -> new Object[]{encryptionService.reencrypt(oldNumber), oldNumber})
+                    .toList()).get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+        }
+    }
+
+    private int rekey(List<Object[]> newAndOld) {
+        List<String> oldNumbers = new ArrayList<>(newAndOld.size());
+        for (Object[] pair : newAndOld) {
+            oldNumbers.add((String) pair[1]);
+        }
+        int[] counts = transactionTemplate.execute(status -> {
+            CacheInvalidationBus bus = invalidationBus.getIfAvailable();
+            if (bus != null) {
+                oldNumbers.forEach(oldNumber -> bus.publish(CacheInvalidationBus.cardKey(oldNumber)));
+            }
+            return cardRepository.updateCardNumbers(newAndOld);
+        });
+        // A card deleted since the page was read updates nothing
+        int updated = 0;
+        for (int count : counts) {
+            updated += Math.max(count, 0);
+        }
+        rekeyed.increment(updated);
+        return updated;
+    }
+
+    private void throttle(long startTime, long cardsSoFar) throws InterruptedException {
+        long dueMs = cardsSoFar * 1000 / maxCardsPerSecond;
+        long aheadMs = dueMs - (System.currentTimeMillis() - startTime);
+        if (aheadMs > 0) {
+            Thread.sleep(aheadMs);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.epic.cms.job;
+
+import com.epic.cms.repository.CardRequestPartitionRepository;
+import com.epic.cms.service.StatusCounterService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Keeps {@code card_request}'s monthly partitions ahead of the clock and archives old ones.
+ * <p>
+ * Each run, on the elected instance, creates the current month and the next {@code months-ahead}
+ * months, then detaches every partition older than {@code archive-after-months} that holds no
+ * PENDING request and moves it to the {@code card_request_archive} schema. Archived requests leave
+ * the API and the status counters, which are recounted afterwards. A month still holding a pending
+ * request stays attached until it is decided.
+ */
+@Component
+public class CardRequestPartitionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(CardRequestPartitionManager.class);
+
+    private final CardRequestPartitionRepository partitionRepository;
+    private final StatusCounterService statusCounterService;
+    private final JobRunner jobRunner;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int archiveAfterMonths;
+    private final long lockTimeoutMs;
+    private final Counter archived;
+
+    public CardRequestPartitionManager(CardRequestPartitionRepository partitionRepository,
+                                       StatusCounterService statusCounterService, JobRunner jobRunner,
+                                       PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                       @Value("${cms.jobs.request-partitions.months-ahead:3}") int monthsAhead,
+                                       @Value("${cms.jobs.request-partitions.archive-after-months:12}") int archiveAfterMonths,
+                                       @Value("${cms.jobs.request-partitions.lock-timeout-ms:2000}") long lockTimeoutMs) {
+        this.partitionRepository = partitionRepository;
+        this.statusCounterService = statusCounterService;
+        this.jobRunner = jobRunner;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+        this.archiveAfterMonths = archiveAfterMonths;
+        this.lockTimeoutMs = lockTimeoutMs;
+        this.archived = Counter.builder("cms.jobs.request-partitions.archived")
+                .description("card_request partitions moved to the archive schema")
+                .register(meterRegistry);
+    }
+
+    // Runs at startup so the current month exists before the first request is created
+    @Scheduled(initialDelay = 0, fixedDelayString = "${cms.jobs.request-partitions.interval-ms:3600000}")
+    public void maintain() {
+        jobRunner.runIfLeader("card-request-partitions", () -> {
+            YearMonth current = YearMonth.now();
+            ensurePartitions(current, current.plusMonths(monthsAhead));
+            archiveProcessedBefore(current.minusMonths(archiveAfterMonths));
+        });
+    }
+
+    // Months of request history kept attached; older months are archived once they hold no pending request
+    public int getArchiveAfterMonths() {
+        return archiveAfterMonths;
+    }
+
+    /**
+     * Creates any missing partition for the months from {@code from} to {@code to}, inclusive.
+     */
+    public void ensurePartitions(YearMonth from, YearMonth to) {
+        Set<YearMonth> attached = new HashSet<>(partitionRepository.findAttachedMonths());
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            if (!attached.contains(month)) {
+                partitionRepository.createPartition(month);
+                logger.info("Created partition {}", CardRequestPartitionRepository.partitionName(month));
+            }
+        }
+    }
+
+    // Failures, e.g. a lock timeout on a busy table, propagate to the job runner; the next run retries
+    private void archiveProcessedBefore(YearMonth cutoff) {
+        int archivedThisRun = 0;
+        for (YearMonth month : partitionRepository.findAttachedMonths()) {
+            if (!month.isBefore(cutoff)) {
+                break;
+            }
+            if (partitionRepository.hasPendingRequests(month)) {
+                logger.info("Partition {} still has pending requests; kept attached",
+                        CardRequestPartitionRepository.partitionName(month));
+                continue;
+            }
+            long rows = partitionRepository.countRows(month);
+            transactionTemplate.executeWithoutResult(status -> partitionRepository.archivePartition(month, lockTimeoutMs));
+            archived.increment();
+            archivedThisRun++;
+            logger.info("Archived partition {} ({} requests) to {}", CardRequestPartitionRepository.partitionName(month),
+                    rows, CardRequestPartitionRepository.ARCHIVE_SCHEMA);
+        }
+        if (archivedThisRun > 0) {
+            statusCounterService.reconcile();
+        }
+    }
+}
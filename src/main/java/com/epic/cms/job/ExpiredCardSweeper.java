@@ -0,0 +1,134 @@
+package com.epic.cms.job;
+
+import com.epic.cms.event.CardChangeEvent;
+import com.epic.cms.event.CardChangeEvent.ChangeType;
+import com.epic.cms.model.Card;
+import com.epic.cms.repository.CardRepository;
+import com.epic.cms.service.CardEncryptionService;
+import com.epic.cms.service.StatusCounterService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves active cards past their expiry date to {@code DACT}.
+ * <p>
+ * Each chunk is its own short transaction: claim up to {@code chunk-size} expired cards through
+ * {@code idx_card_status_expiry} (skipping rows locked by online writes), deactivate them, and
+ * update counters and change events alongside. A crash or restart loses at most the chunk in
+ * flight, and the next run simply finds the cards that are still active. The pause between chunks
+ * and the per-run cap keep a large backlog from crowding out online traffic; it drains over
+ * several runs instead. Only the elected instance sweeps.
+ */
+@Component
+public class ExpiredCardSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpiredCardSweeper.class);
+
+    private final CardRepository cardRepository;
+    private final CardEncryptionService encryptionService;
+    private final StatusCounterService statusCounterService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final JobRunner jobRunner;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final long pauseMs;
+    private final Counter deactivated;
+    private final Counter chunks;
+    private final AtomicLong remaining = new AtomicLong();
+
+    public ExpiredCardSweeper(CardRepository cardRepository, CardEncryptionService encryptionService,
+                              StatusCounterService statusCounterService, ApplicationEventPublisher eventPublisher,
+                              PlatformTransactionManager transactionManager, MeterRegistry meterRegistry, JobRunner jobRunner,
+                              @Value("${cms.jobs.expiry-sweep.chunk-size:500}") int chunkSize,
+                              @Value("${cms.jobs.expiry-sweep.max-chunks-per-run:200}") int maxChunksPerRun,
+                              @Value("${cms.jobs.expiry-sweep.pause-ms:100}") long pauseMs,
+                              @Value("${cms.jobs.expiry-sweep.chunk-timeout-seconds:5}") int chunkTimeoutSeconds) {
+        this.cardRepository = cardRepository;
+        this.encryptionService = encryptionService;
+        this.statusCounterService = statusCounterService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setTimeout(chunkTimeoutSeconds);
+        this.jobRunner = jobRunner;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.pauseMs = pauseMs;
+        this.deactivated = Counter.builder("cms.jobs.expiry-sweep.deactivated")
+                .description("Expired cards moved to DACT")
+                .register(meterRegistry);
+        this.chunks = Counter.builder("cms.jobs.expiry-sweep.chunks")
+                .description("Sweeper chunks committed")
+                .register(meterRegistry);
+        Gauge.builder("cms.jobs.expiry-sweep.remaining", remaining, AtomicLong::get)
+                .description("Expired active cards left at the end of the last run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${cms.jobs.expiry-sweep.initial-delay-ms:60000}",
+               fixedDelayString = "${cms.jobs.expiry-sweep.interval-ms:3600000}")
+    public void sweep() {
+        jobRunner.runIfLeader("expiry-sweep", this::sweepExpired);
+    }
+
+    // Failures propagate to the job runner, which records them; the rest is retried next run
+    private void sweepExpired() {
+        LocalDate today = LocalDate.now();
+        long startTime = System.currentTimeMillis();
+        long total = 0;
+        try {
+            for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+                Integer swept = transactionTemplate.execute(status -> sweepChunk(today));
+                total += swept;
+                if (swept < chunkSize) {
+                    break;
+                }
+                Thread.sleep(pauseMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Expiry sweep interrupted after {} cards", total);
+        } finally {
+            try {
+                remaining.set(cardRepository.countExpiredActive(today));
+            } catch (Exception e) {
+                logger.warn("Could not count remaining expired cards: {}", e.getMessage());
+            }
+            if (total > 0 || remaining.get() > 0) {
+                logger.info("Expiry sweep deactivated {} cards in {}ms, {} expired active cards remaining",
+                        total, System.currentTimeMillis() - startTime, remaining.get());
+            }
+        }
+    }
+
+    private int sweepChunk(LocalDate today) {
+        List<Card> cards = cardRepository.deactivateExpired(today, chunkSize);
+        if (cards.isEmpty()) {
+            return 0;
+        }
+        statusCounterService.cardsStatusChanged("CACT", "DACT", cards.size());
+        for (Card card : cards) {
+            eventPublisher.publishEvent(CardChangeEvent.forCard(ChangeType.CARD_STATUS_CHANGED, card.getCardId(),
+                            encryptionService.decrypt(card.getCardNumber()), card.getCardNumber())
+                    .statusCode("DACT")
+                    .previousStatusCode("CACT")
+                    .build());
+        }
+        deactivated.increment(cards.size());
+        chunks.increment();
+        return cards.size();
+    }
+}
@@ -0,0 +1,124 @@
+package com.epic.cms.job;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Elects one instance per background job with PostgreSQL session-level advisory locks.
+ * <p>
+ * Locks are taken on a dedicated unpooled connection and kept for the life of that connection, so
+ * the instance that first wins a job keeps running it. When the holder dies, or its connection
+ * drops, the database releases its locks and the next instance to ask takes over. The connection
+ * is validated before every answer; if it has gone, every lock it held is treated as lost.
+ * Leadership can still lapse while a run is in progress, so jobs must tolerate a brief overlap
+ * (they all claim rows with {@code SKIP LOCKED} or are idempotent).
+ */
+@Component
+public class JobLeaderElector {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobLeaderElector.class);
+    // First key of the two-int advisory lock space, "CMS"; the second is the job name's hash
+    private static final int LOCK_NAMESPACE = 0x434D53;
+
+    private final String nodeId = hostName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+    private final Set<String> heldJobs = new HashSet<>();
+    private Connection connection;
+
+    @Value("${cms.jobs.leader.validation-timeout-seconds:2}")
+    private int validationTimeoutSeconds;
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username:}")
+    private String username;
+
+    @Value("${spring.datasource.password:}")
+    private String password;
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public synchronized Set<String> getHeldJobs() {
+        return new TreeSet<>(heldJobs);
+    }
+
+    /**
+     * Returns whether this instance is (or has just become) the runner for the job.
+     */
+    public synchronized boolean tryAcquire(String jobName) {
+        try {
+            Connection current = connection();
+            if (heldJobs.contains(jobName)) {
+                return true;
+            }
+            try (PreparedStatement statement = current.prepareStatement("SELECT pg_try_advisory_lock(?, ?)")) {
+                statement.setInt(1, LOCK_NAMESPACE);
+                statement.setInt(2, jobName.hashCode());
+                try (ResultSet rs = statement.executeQuery()) {
+                    if (rs.next() && rs.getBoolean(1)) {
+                        heldJobs.add(jobName);
+                        logger.info("Node {} is now the runner for job '{}'", nodeId, jobName);
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } catch (SQLException e) {
+            logger.warn("Leader election for job '{}' failed, not running it here: {}", jobName, e.getMessage());
+            reset();
+            return false;
+        }
+    }
+
+    private Connection connection() throws SQLException {
+        if (connection != null) {
+            if (connection.isValid(validationTimeoutSeconds)) {
+                return connection;
+            }
+            logger.warn("Leader election connection lost, giving up jobs {}", heldJobs);
+            reset();
+        }
+        connection = DriverManager.getConnection(url, username, password);
+        connection.setAutoCommit(true);
+        return connection;
+    }
+
+    // Closing the session releases its advisory locks, so other instances take over at once
+    @PreDestroy
+    public synchronized void reset() {
+        heldJobs.clear();
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+                // already broken
+            }
+            connection = null;
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.epic.cms.job;
+
+import com.epic.cms.model.JobRun;
+import com.epic.cms.repository.JobRunRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a cluster-wide background job only on the instance elected for it by {@link JobLeaderElector},
+ * and records each run in {@code job_run}. Failures are logged and recorded here rather than thrown
+ * back into the scheduler. High-frequency jobs can be left out of the history table; they are still
+ * timed in metrics.
+ */
+@Component
+public class JobRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobRunner.class);
+
+    private final JobLeaderElector leaderElector;
+    private final JobRunRepository jobRunRepository;
+    private final MeterRegistry meterRegistry;
+    private final Set<String> historyExcludedJobs;
+    private final long historyRetentionDays;
+    private final Counter skipped;
+
+    public JobRunner(JobLeaderElector leaderElector, JobRunRepository jobRunRepository, MeterRegistry meterRegistry,
+                     @Value("${cms.jobs.history.excluded-jobs:outbox-relay}") List<String> historyExcludedJobs,
+                     @Value("${cms.jobs.history.retention-days:30}") long historyRetentionDays) {
+        this.leaderElector = leaderElector;
+        this.jobRunRepository = jobRunRepository;
+        this.meterRegistry = meterRegistry;
+        this.historyExcludedJobs = new HashSet<>(historyExcludedJobs);
+        this.historyRetentionDays = historyRetentionDays;
+        this.skipped = Counter.builder("cms.jobs.skipped")
+                .description("Scheduled job runs skipped because another instance is the runner")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the job if this instance is its runner, returning false if another instance is.
+     */
+    public boolean runIfLeader(String jobName, Runnable job) {
+        if (!leaderElector.tryAcquire(jobName)) {
+            skipped.increment();
+            return false;
+        }
+
+        MDC.put("operationId", jobName);
+        LocalDateTime startedAt = LocalDateTime.now();
+        long startNanos = System.nanoTime();
+        String error = null;
+        try {
+            job.run();
+        } catch (Exception e) {
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            logger.error("Job '{}' failed: {}", jobName, e.getMessage(), e);
+        } finally {
+            long durationNanos = System.nanoTime() - startNanos;
+            String status = error == null ? "SUCCEEDED" : "FAILED";
+            Timer.builder("cms.jobs.run")
+                    .tag("job", jobName)
+                    .tag("status", status)
+                    .register(meterRegistry)
+                    .record(durationNanos, TimeUnit.NANOSECONDS);
+            if (!historyExcludedJobs.contains(jobName)) {
+                record(jobName, startedAt, TimeUnit.NANOSECONDS.toMillis(durationNanos), status, error);
+            }
+            MDC.clear();
+        }
+        return true;
+    }
+
+    private void record(String jobName, LocalDateTime startedAt, long durationMs, String status, String error) {
+        try {
+            jobRunRepository.save(JobRun.builder()
+                    .jobName(jobName)
+                    .nodeId(leaderElector.getNodeId())
+                    .startedAt(startedAt)
+                    .finishedAt(LocalDateTime.now())
+                    .durationMs(durationMs)
+                    .status(status)
+                    .errorMessage(error)
+                    .build());
+        } catch (Exception e) {
+            logger.warn("Could not record run of job '{}': {}", jobName, e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${cms.jobs.history.purge-interval-ms:3600000}",
+               fixedDelayString = "${cms.jobs.history.purge-interval-ms:3600000}")
+    public void purgeHistory() {
+        runIfLeader("job-run-retention", () -> {
+            int purged = jobRunRepository.deleteStartedBefore(LocalDateTime.now().minusDays(historyRetentionDays));
+            if (purged > 0) {
+                logger.info("Purged {} job runs older than {} days", purged, historyRetentionDays);
+            }
+        });
+    }
+}
@@ -0,0 +1,77 @@
+package com.epic.cms.job;
+
+import com.epic.cms.model.Card;
+import com.epic.cms.repository.CardRepository;
+import com.epic.cms.service.CardEncryptionService;
+import com.epic.cms.util.CardNumberUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills the lookup columns derived from the plain number, {@code card.mask_id} and
+ * {@code card.card_number_ends}, for rows written before they existed, in keyset-ordered batches.
+ * Only the elected instance backfills; the others check whether any rows are still missing one.
+ * Lookups never scan the table, so a card is found by mask id or masked number once its row has
+ * been reached. A failed or interrupted backfill resumes on the next check.
+ */
+@Component
+public class MaskIdBackfillJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(MaskIdBackfillJob.class);
+
+    private final CardRepository cardRepository;
+    private final CardEncryptionService encryptionService;
+    private final JobRunner jobRunner;
+    private final int batchSize;
+    private volatile boolean complete;
+
+    public MaskIdBackfillJob(CardRepository cardRepository,
+                             CardEncryptionService encryptionService,
+                             JobRunner jobRunner,
+                             @Value("${cms.jobs.mask-id-backfill.batch-size:1000}") int batchSize) {
+        this.cardRepository = cardRepository;
+        this.encryptionService = encryptionService;
+        this.jobRunner = jobRunner;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${cms.jobs.mask-id-backfill.check-interval-ms:60000}")
+    public void backfill() {
+        if (complete) {
+            return;
+        }
+        if (!jobRunner.runIfLeader("mask-id-backfill", this::run)) {
+            complete = cardRepository.findCardNumbersWithoutMaskId(0L, 1).isEmpty();
+        }
+    }
+
+    void run() {
+        long startTime = System.currentTimeMillis();
+        long filled = 0;
+        long after = 0L;
+        List<Card> batch;
+        do {
+            batch = cardRepository.findCardNumbersWithoutMaskId(after, batchSize);
+            List<Object[]> updates = new ArrayList<>(batch.size());
+            for (Card card : batch) {
+                String plainNumber = encryptionService.decrypt(card.getCardNumber());
+                updates.add(new Object[]{CardNumberUtils.generateMaskId(plainNumber),
+                        CardNumberUtils.cardNumberEnds(plainNumber), card.getCardId()});
+            }
+            if (!updates.isEmpty()) {
+                cardRepository.updateMaskIds(updates);
+                filled += updates.size();
+                after = batch.get(batch.size() - 1).getCardId();
+            }
+        } while (batch.size() == batchSize);
+
+        complete = true;
+        logger.info("Mask id backfill complete: {} cards updated in {}ms", filled, System.currentTimeMillis() - startTime);
+    }
+}
@@ -0,0 +1,49 @@
+package com.epic.cms.job;
+
+import com.epic.cms.rules.RequestDecisionEngine;
+import com.epic.cms.service.CardRequestService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the auto-decision rules over the pending request queue, one short transaction per batch, so
+ * requests created while rules were off or before a rule was added get decided too. Requests no rule
+ * decides stay pending and are looked at again on the next run.
+ */
+@Component
+public class PendingRequestAutoDecisionJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(PendingRequestAutoDecisionJob.class);
+
+    private final CardRequestService cardRequestService;
+    private final RequestDecisionEngine decisionEngine;
+    private final JobRunner jobRunner;
+    private final int batchSize;
+
+    public PendingRequestAutoDecisionJob(CardRequestService cardRequestService, RequestDecisionEngine decisionEngine,
+                                         JobRunner jobRunner, @Value("${cms.rules.batch-size:200}") int batchSize) {
+        this.cardRequestService = cardRequestService;
+        this.decisionEngine = decisionEngine;
+        this.jobRunner = jobRunner;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${cms.rules.batch-interval-ms:60000}", fixedDelayString = "${cms.rules.batch-interval-ms:60000}")
+    public void decidePending() {
+        if (!decisionEngine.isEnabled()) {
+            return;
+        }
+        jobRunner.runIfLeader("request-auto-decision", () -> {
+            long startTime = System.currentTimeMillis();
+            int batches = 0;
+            Long after = 0L;
+            while ((after = cardRequestService.autoDecidePending(after, batchSize)) != null) {
+                batches++;
+            }
+            logger.debug("Auto-decision pass over {} batches in {}ms", batches, System.currentTimeMillis() - startTime);
+        });
+    }
+}
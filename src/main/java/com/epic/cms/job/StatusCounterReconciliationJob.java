@@ -0,0 +1,26 @@
+package com.epic.cms.job;
+
+import com.epic.cms.service.StatusCounterService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically recounts cards and requests into the status counters. The first run at startup also
+ * seeds counters for rows loaded outside the services (data.sql, bulk imports).
+ */
+@Component
+public class StatusCounterReconciliationJob {
+
+    private final StatusCounterService statusCounterService;
+    private final JobRunner jobRunner;
+
+    public StatusCounterReconciliationJob(StatusCounterService statusCounterService, JobRunner jobRunner) {
+        this.statusCounterService = statusCounterService;
+        this.jobRunner = jobRunner;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${cms.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        jobRunner.runIfLeader("status-counter-reconciliation", statusCounterService::reconcile);
+    }
+}
@@ -0,0 +1,402 @@
+package com.epic.cms.ledger;
+
+import com.epic.cms.dto.AuthorizationResponseDto;
+import com.epic.cms.exception.BusinessException;
+import com.epic.cms.exception.ResourceNotFoundException;
+import com.epic.cms.model.Card;
+import com.epic.cms.model.CardAuthorization;
+import com.epic.cms.repository.CardAuthorizationRepository;
+import com.epic.cms.repository.CardRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Available-credit/cash ledger behind the authorization API.
+ * <p>
+ * The {@code card} row is the only balance: every hold is a guarded decrement
+ * ({@code available_credit_limit >= amount} and the card active and unexpired, checked in the
+ * {@code UPDATE}'s WHERE clause), so any number of instances can authorize against the same card
+ * without spending its credit twice, and concurrent writers only ever add or subtract deltas.
+ * <p>
+ * To keep throughput, authorizations are group-committed: callers queue them and a single writer
+ * thread runs up to {@code batch-size} of them as one JDBC batch in one transaction, ordered by card
+ * so concurrent batches lock rows in the same order. A caller is answered only after its batch
+ * commits, so an approved hold is never lost; if a batch fails, each authorization in it is retried
+ * in its own transaction and only the ones that still fail are reported as errors.
+ * <p>
+ * Capture and release run in their own transaction on the caller's thread, guarded on the hold
+ * still being HELD. Limit changes go through {@link #updateCard}, which rejects a new limit that
+ * outstanding holds would push below zero in the same statement that applies it.
+ */
+@Component
+public class CardLedger {
+
+    public static final String HELD = "HELD";
+    public static final String CAPTURED = "CAPTURED";
+    public static final String RELEASED = "RELEASED";
+    public static final String DECLINED = "DECLINED";
+
+    private static final Logger logger = LoggerFactory.getLogger(CardLedger.class);
+
+    private final CardRepository cardRepository;
+    private final CardAuthorizationRepository authorizationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final BlockingQueue<PendingAuthorization> queue;
+    private final Counter approved;
+    private final Counter declined;
+    private final Counter batchFailures;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public CardLedger(CardRepository cardRepository, CardAuthorizationRepository authorizationRepository,
+                      PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                      @Value("${cms.ledger.batch-size:200}") int batchSize,
+                      @Value("${cms.ledger.queue-capacity:10000}") int queueCapacity) {
+        this.cardRepository = cardRepository;
+        this.authorizationRepository = authorizationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+
+        this.approved = Counter.builder("cms.ledger.authorizations").tag("result", "approved").register(meterRegistry);
+        this.declined = Counter.builder("cms.ledger.authorizations").tag("result", "declined").register(meterRegistry);
+        this.batchFailures = Counter.builder("cms.ledger.batch.failures")
+                .description("Authorization batches rolled back and retried one authorization at a time")
+                .register(meterRegistry);
+        Gauge.builder("cms.ledger.queued", queue, BlockingQueue::size)
+                .description("Authorizations waiting for the writer")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        writerThread = Thread.ofPlatform().daemon().name("cms-ledger-writer").start(this::writeLoop);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writerThread != null) {
+            writerThread.interrupt();
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        // Callers still waiting are answered from the shutdown thread
+        List<PendingAuthorization> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            process(batch);
+            batch.clear();
+        }
+    }
+
+    public AuthorizationResponseDto authorize(String cardNumber, String authType, BigDecimal amount) {
+        long cents = toCents(amount);
+        if (cents <= 0) {
+            throw new IllegalArgumentException("Amount must be positive: " + amount);
+        }
+        PendingAuthorization pending = new PendingAuthorization(cardNumber, authType, cents);
+        if (!running) {
+            // Before startup completes or after shutdown began, the caller writes its own batch of one
+            process(List.of(pending));
+        } else {
+            try {
+                queue.put(pending);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while queueing an authorization", e);
+            }
+        }
+        try {
+            return pending.result.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+        }
+    }
+
+    // The held amount stays consumed; the hold just becomes final
+    public AuthorizationResponseDto capture(String cardNumber, String authorizationId) {
+        return settle(cardNumber, authorizationId, CAPTURED);
+    }
+
+    public AuthorizationResponseDto release(String cardNumber, String authorizationId) {
+        return settle(cardNumber, authorizationId, RELEASED);
+    }
+
+    /**
+     * Writes a card edit, moving its available amounts by the limit change. Fails with a
+     * {@link BusinessException}, writing nothing, when the holds outstanding at that moment would
+     * leave an available amount below zero. Joins the caller's transaction.
+     */
+    public void updateCard(Card card) {
+        if (cardRepository.update(card) == 0) {
+            if (cardRepository.findById(card.getCardId()).isEmpty()) {
+                throw new ResourceNotFoundException("Card not found");
+            }
+            throw new BusinessException("Cannot lower limits below the amount currently held on the card");
+        }
+    }
+
+    private AuthorizationResponseDto settle(String cardNumber, String authorizationId, String newStatus) {
+        return transactionTemplate.execute(status -> {
+            Card card = cardRepository.findByCardNumber(cardNumber)
+                    .orElseThrow(() -> new ResourceNotFoundException("Card not found"));
+            CardAuthorization authorization = authorizationRepository
+                    .settle(authorizationId, card.getCardId(), newStatus, LocalDateTime.now())
+                    .orElseThrow(() -> notSettleable(authorizationId, card.getCardId()));
+            if (RELEASED.equals(newStatus)) {
+                BigDecimal cash = "CASH".equals(authorization.getAuthType()) ? authorization.getAmount() : BigDecimal.ZERO;
+                card = cardRepository.restoreAvailable(card.getCardId(), authorization.getAmount(), cash)
+                        .orElseThrow(() -> new ResourceNotFoundException("Card not found"));
+            }
+            return AuthorizationResponseDto.builder()
+                    .authorizationId(authorizationId)
+                    .authType(authorization.getAuthType())
+                    .amount(authorization.getAmount())
+                    .status(newStatus)
+                    .availableCreditLimit(card.getAvailableCreditLimit())
+                    .availableCashLimit(card.getAvailableCashLimit())
+                    .build();
+        });
+    }
+
+    private RuntimeException notSettleable(String authorizationId, Long cardId) {
+        return authorizationRepository.findById(authorizationId)
+                .filter(authorization -> authorization.getCardId().equals(cardId))
+                .<RuntimeException>map(authorization -> new BusinessException(
+                        "Authorization is not HELD: " + authorizationId + " is " + authorization.getStatus()))
+                .orElseGet(() -> new ResourceNotFoundException("Authorization not found: " + authorizationId));
+    }
+
+    private void writeLoop() {
+        List<PendingAuthorization> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PendingAuthorization first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Not expected, since process() answers every caller itself; no caller is left waiting
+                logger.error("Ledger writer failed on a batch of {}: {}", batch.size(), e.getMessage(), e);
+                batch.forEach(pending -> pending.fail(e));
+                batch.clear();
+            }
+        }
+    }
+
+    // Callers are answered only after the transaction that holds their amount has committed
+    void process(List<PendingAuthorization> batch) {
+        List<PendingAuthorization> ordered = new ArrayList<>(batch);
+        ordered.sort(Comparator.comparing(pending -> pending.cardNumber));
+        try {
+            transactionTemplate.executeWithoutResult(status -> apply(ordered));
+            ordered.forEach(PendingAuthorization::complete);
+            return;
+        } catch (RuntimeException e) {
+            if (ordered.size() == 1) {
+                ordered.get(0).fail(e);
+                return;
+            }
+            batchFailures.increment();
+            logger.warn("Ledger batch of {} authorizations failed, retrying them one at a time: {}", ordered.size(), e.getMessage());
+        }
+        for (PendingAuthorization pending : ordered) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> apply(List.of(pending)));
+                pending.complete();
+            } catch (RuntimeException e) {
+                logger.error("Authorization of {} cents on card {} failed: {}", pending.cents, pending.cardNumber, e.getMessage(), e);
+                pending.fail(e);
+            }
+        }
+    }
+
+    // Runs the guarded decrements, then reads the rows back once. Walking each card's operations
+    // backwards from its final row gives the balance every operation saw, which is what approved
+    // holds report and what explains a decline.
+    private void apply(List<PendingAuthorization> ordered) {
+        LocalDate today = LocalDate.now();
+        List<Object[]> holds = new ArrayList<>(ordered.size());
+        LinkedHashSet<String> cardNumbers = new LinkedHashSet<>();
+        for (PendingAuthorization pending : ordered) {
+            BigDecimal credit = BigDecimal.valueOf(pending.cents, 2);
+            BigDecimal cash = BigDecimal.valueOf(pending.cashCents(), 2);
+            holds.add(new Object[]{credit, cash, pending.cardNumber, java.sql.Date.valueOf(today), credit, cash});
+            cardNumbers.add(pending.cardNumber);
+        }
+        int[] updated = cardRepository.holdAvailable(holds);
+
+        Map<String, Card> cards = new HashMap<>();
+        for (Card card : cardRepository.findByCardNumbers(new ArrayList<>(cardNumbers))) {
+            cards.put(card.getCardNumber(), card);
+        }
+        Map<String, long[]> balances = new HashMap<>();
+        List<PendingAuthorization> unexplained = new ArrayList<>();
+        List<CardAuthorization> authorizations = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = ordered.size() - 1; i >= 0; i--) {
+            PendingAuthorization pending = ordered.get(i);
+            Card card = cards.get(pending.cardNumber);
+            if (card == null) {
+                pending.notFound();
+                continue;
+            }
+            // Credit and cash on the card right after this operation
+            long[] balance = balances.computeIfAbsent(pending.cardNumber, number -> new long[]{
+                    toCents(card.getAvailableCreditLimit()), toCents(card.getAvailableCashLimit())});
+            if (updated[i] > 0) {
+                CardAuthorization authorization = CardAuthorization.builder()
+                        .authorizationId(UUID.randomUUID().toString())
+                        .cardId(card.getCardId())
+                        .authType(pending.authType)
+                        .amount(BigDecimal.valueOf(pending.cents, 2))
+                        .status(HELD)
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .build();
+                authorizations.add(authorization);
+                pending.held(authorization.getAuthorizationId(), balance);
+                balance[0] += pending.cents;
+                balance[1] += pending.cashCents();
+                continue;
+            }
+            String declineReason = declineReason(card, today, pending, balance);
+            if (declineReason == null) {
+                unexplained.add(pending);
+            } else {
+                pending.declined(declineReason, balance);
+            }
+        }
+        authorizationRepository.insertAll(authorizations);
+        // A card none of this batch held was not locked, so it can have changed between the
+        // decrement and the read; those operations simply run again, after the rest of the batch
+        if (!unexplained.isEmpty()) {
+            apply(unexplained.reversed());
+        }
+    }
+
+    // Mirrors the guard in CardRepository.holdAvailable. Cash draws on both the cash sub-limit and
+    // the overall credit line.
+    private static String declineReason(Card card, LocalDate today, PendingAuthorization pending, long[] balance) {
+        if (!"CACT".equals(card.getStatusCode())) {
+            return "CARD_NOT_ACTIVE";
+        }
+        if (card.getExpiryDate().isBefore(today)) {
+            return "CARD_EXPIRED";
+        }
+        if (pending.cents > balance[0]) {
+            return "INSUFFICIENT_CREDIT";
+        }
+        if (pending.cashCents() > balance[1]) {
+            return "INSUFFICIENT_CASH";
+        }
+        return null;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        try {
+            return amount.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount must have at most two decimal places: " + amount);
+        }
+    }
+
+    // One caller's authorization. The outcome is kept until its transaction commits, since a
+    // rolled-back batch is applied again. Amounts are in cents.
+    final class PendingAuthorization {
+
+        final String cardNumber;
+        final String authType;
+        final long cents;
+        final CompletableFuture<AuthorizationResponseDto> result = new CompletableFuture<>();
+        private AuthorizationResponseDto outcome;
+        private RuntimeException failure;
+
+        PendingAuthorization(String cardNumber, String authType, long cents) {
+            this.cardNumber = cardNumber;
+            this.authType = authType;
+            this.cents = cents;
+        }
+
+        long cashCents() {
+            return "CASH".equals(authType) ? cents : 0;
+        }
+
+        void held(String authorizationId, long[] balance) {
+            outcome = response(authorizationId, HELD, null, balance);
+            failure = null;
+        }
+
+        void declined(String declineReason, long[] balance) {
+            outcome = response(null, DECLINED, declineReason, balance);
+            failure = null;
+        }
+
+        void notFound() {
+            outcome = null;
+            failure = new ResourceNotFoundException("Card not found");
+        }
+
+        void complete() {
+            if (failure != null) {
+                result.completeExceptionally(failure);
+                return;
+            }
+            (HELD.equals(outcome.getStatus()) ? approved : declined).increment();
+            result.complete(outcome);
+        }
+
+        void fail(RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+
+        private AuthorizationResponseDto response(String authorizationId, String status, String declineReason,
+                                                  long[] balance) {
+            return AuthorizationResponseDto.builder()
+                    .authorizationId(authorizationId)
+                    .authType(authType)
+                    .amount(BigDecimal.valueOf(cents, 2))
+                    .status(status)
+                    .declineReason(declineReason)
+                    .availableCreditLimit(BigDecimal.valueOf(balance[0], 2))
+                    .availableCashLimit(BigDecimal.valueOf(balance[1], 2))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.epic.cms.mapper;
+
+import com.epic.cms.model.CardAuthorization;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+@Component
+public class CardAuthorizationRowMapper implements RowMapper<CardAuthorization> {
+
+    @Override
+    public CardAuthorization mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return CardAuthorization.builder()
+                .authorizationId(rs.getString("authorization_id"))
+                .cardId(rs.getLong("card_id"))
+                .authType(rs.getString("auth_type"))
+                .amount(rs.getBigDecimal("amount"))
+                .status(rs.getString("status"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .updatedAt(rs.getTimestamp("updated_at").toLocalDateTime())
+                .build();
+    }
+}
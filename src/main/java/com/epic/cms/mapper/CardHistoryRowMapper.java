@@ -0,0 +1,23 @@
+package com.epic.cms.mapper;
+
+import com.epic.cms.model.CardHistory;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+@Component
+public class CardHistoryRowMapper implements RowMapper<CardHistory> {
+
+    @Override
+    public CardHistory mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return CardHistory.builder()
+                .historyId(rs.getLong("history_id"))
+                .cardId(rs.getLong("card_id"))
+                .changeType(rs.getString("change_type"))
+                .changes(rs.getString("changes"))
+                .changedAt(rs.getTimestamp("changed_at").toLocalDateTime())
+                .build();
+    }
+}
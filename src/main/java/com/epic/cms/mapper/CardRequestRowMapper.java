@@ -8,21 +8,65 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 
+import static com.epic.cms.mapper.ResultSetColumns.ABSENT;
+
+/**
+ * Maps card request rows, resolving column positions on the first row of each query like
+ * {@link CardRowMapper}. Columns the query left out stay null.
+ */
 @Component
-public class CardRequestRowMapper implements RowMapper<CardRequest> {
-
-    @Override
-    public CardRequest mapRow(ResultSet rs, int rowNum) throws SQLException {
-        CardRequest cardRequest = CardRequest.builder()
-                .requestId(rs.getLong("request_id"))
-                .cardNumber(rs.getString("card_number"))
-                .requestReasonCode(rs.getString("request_reason_code"))
-                .statusCode(rs.getString("status_code"))
-                .createTime(rs.getTimestamp("create_time") != null 
-                    ? rs.getTimestamp("create_time").toLocalDateTime() 
-                    : null)
-                .build();
-        
-        return cardRequest;
+public class CardRequestRowMapper {
+
+    // A mapper for a single query; it holds that query's column positions
+    public RowMapper<CardRequest> forQuery() {
+        return new IndexedCardRequestMapper();
+    }
+
+    private static final class IndexedCardRequestMapper implements RowMapper<CardRequest> {
+
+        private boolean resolved;
+        private int requestId;
+        private int cardId;
+        private int cardNumber;
+        private int requestReasonCode;
+        private int statusCode;
+        private int createTime;
+
+        @Override
+        public CardRequest mapRow(ResultSet rs, int rowNum) throws SQLException {
+            if (!resolved) {
+                resolve(ResultSetColumns.of(rs));
+            }
+            CardRequest cardRequest = new CardRequest();
+            if (requestId != ABSENT) {
+                cardRequest.setRequestId(rs.getLong(requestId));
+            }
+            if (cardId != ABSENT) {
+                cardRequest.setCardId(rs.getLong(cardId));
+            }
+            if (cardNumber != ABSENT) {
+                cardRequest.setCardNumber(rs.getString(cardNumber));
+            }
+            if (requestReasonCode != ABSENT) {
+                cardRequest.setRequestReasonCode(rs.getString(requestReasonCode));
+            }
+            if (statusCode != ABSENT) {
+                cardRequest.setStatusCode(rs.getString(statusCode));
+            }
+            if (createTime != ABSENT) {
+                cardRequest.setCreateTime(rs.getObject(createTime, LocalDateTime.class));
+            }
+            return cardRequest;
+        }
+
+        private void resolve(ResultSetColumns columns) {
+            requestId = columns.indexOf("request_id");
+            cardId = columns.indexOf("card_id");
+            cardNumber = columns.indexOf("card_number");
+            requestReasonCode = columns.indexOf("request_reason_code");
+            statusCode = columns.indexOf("status_code");
+            createTime = columns.indexOf("create_time");
+            resolved = true;
+        }
     }
 }
@@ -3,26 +3,105 @@ package com.epic.cms.mapper;
 import com.epic.cms.model.Card;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Component;
+
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static com.epic.cms.mapper.ResultSetColumns.ABSENT;
 
+/**
+ * Maps card rows for any projection of the card table. Columns are looked up by name on the first
+ * row of a query and by index after that; columns the query left out stay null on the card.
+ */
 @Component
-public class CardRowMapper implements RowMapper<Card> {
-
-    @Override
-    public Card mapRow(ResultSet rs, int rowNum) throws SQLException {
-
-        Card card = Card.builder()
-                .cardNumber(rs.getString("card_number"))
-                .expiryDate(rs.getDate("expiry_date").toLocalDate())
-                .statusCode(rs.getString("status_code"))
-                .creditLimit(rs.getBigDecimal("credit_limit"))
-                .cashLimit(rs.getBigDecimal("cash_limit"))
-                .availableCreditLimit(rs.getBigDecimal("available_credit_limit"))
-                .availableCashLimit(rs.getBigDecimal("available_cash_limit"))
-                .lastUpdateTime(rs.getTimestamp("last_update_time").toLocalDateTime())
-                .build();
-                                                                
-        return card;
+public class CardRowMapper {
+
+    // Every column, for cards that are updated or returned in full
+    public static final String COLUMNS = "card_id, card_number, expiry_date, status_code, credit_limit, cash_limit, "
+            + "available_credit_limit, available_cash_limit, last_update_time, mask_id";
+
+    // What a CardResponseDto shows (the mask id is derived from the number), for list and search pages
+    public static final String LIST_COLUMNS = "card_number, expiry_date, status_code, credit_limit, cash_limit, "
+            + "available_credit_limit, available_cash_limit, last_update_time";
+
+    // Enough to match a card by its number and load it afterwards, for full-table scans
+    public static final String KEY_COLUMNS = "card_id, card_number";
+
+    /**
+     * A mapper for a single query. It holds that query's column positions, so it must not be shared
+     * between queries.
+     */
+    public RowMapper<Card> forQuery() {
+        return new IndexedCardMapper();
+    }
+
+    private static final class IndexedCardMapper implements RowMapper<Card> {
+
+        private boolean resolved;
+        private int cardId;
+        private int cardNumber;
+        private int expiryDate;
+        private int statusCode;
+        private int creditLimit;
+        private int cashLimit;
+        private int availableCreditLimit;
+        private int availableCashLimit;
+        private int lastUpdateTime;
+        private int maskId;
+
+        @Override
+        public Card mapRow(ResultSet rs, int rowNum) throws SQLException {
+            if (!resolved) {
+                resolve(ResultSetColumns.of(rs));
+            }
+            Card card = new Card();
+            if (cardId != ABSENT) {
+                card.setCardId(rs.getLong(cardId));
+            }
+            if (cardNumber != ABSENT) {
+                card.setCardNumber(rs.getString(cardNumber));
+            }
+            if (expiryDate != ABSENT) {
+                card.setExpiryDate(rs.getObject(expiryDate, LocalDate.class));
+            }
+            if (statusCode != ABSENT) {
+                card.setStatusCode(rs.getString(statusCode));
+            }
+            if (creditLimit != ABSENT) {
+                card.setCreditLimit(rs.getBigDecimal(creditLimit));
+            }
+            if (cashLimit != ABSENT) {
+                card.setCashLimit(rs.getBigDecimal(cashLimit));
+            }
+            if (availableCreditLimit != ABSENT) {
+                card.setAvailableCreditLimit(rs.getBigDecimal(availableCreditLimit));
+            }
+            if (availableCashLimit != ABSENT) {
+                card.setAvailableCashLimit(rs.getBigDecimal(availableCashLimit));
+            }
+            if (lastUpdateTime != ABSENT) {
+                card.setLastUpdateTime(rs.getObject(lastUpdateTime, LocalDateTime.class));
+            }
+            if (maskId != ABSENT) {
+                card.setMaskId(rs.getString(maskId));
+            }
+            return card;
+        }
+
+        private void resolve(ResultSetColumns columns) {
+            cardId = columns.indexOf("card_id");
+            cardNumber = columns.indexOf("card_number");
+            expiryDate = columns.indexOf("expiry_date");
+            statusCode = columns.indexOf("status_code");
+            creditLimit = columns.indexOf("credit_limit");
+            cashLimit = columns.indexOf("cash_limit");
+            availableCreditLimit = columns.indexOf("available_credit_limit");
+            availableCashLimit = columns.indexOf("available_cash_limit");
+            lastUpdateTime = columns.indexOf("last_update_time");
+            maskId = columns.indexOf("mask_id");
+            resolved = true;
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.epic.cms.mapper;
 
+import com.epic.cms.dto.CardField;
 import com.epic.cms.dto.CardResponseDto;
 import com.epic.cms.dto.CardRequestResponseDto;
 import com.epic.cms.model.Card;
@@ -8,12 +9,18 @@ import com.epic.cms.util.CardNumberUtils;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
 public class DtoMapper {
 
     public CardResponseDto toCardResponseDto(Card card) {
+        return toCardResponseDto(card, CardField.ALL);
+    }
+
+    // Only the requested fields are set; the mask id hash is computed only when asked for
+    public CardResponseDto toCardResponseDto(Card card, Set<CardField> fields) {
         if (card == null) {
             return null;
         }
@@ -21,24 +28,44 @@ public class DtoMapper {
         CardResponseDto dto = new CardResponseDto();
         String plainCardNumber = card.getCardNumber();
         
-        String maskedNumber = CardNumberUtils.maskCardNumber(plainCardNumber);
-        
-        dto.setCardNumber(maskedNumber); 
-        dto.setMaskId(CardNumberUtils.generateMaskId(plainCardNumber));
-        dto.setExpiryDate(card.getExpiryDate());
-        dto.setStatusCode(card.getStatusCode());
-        dto.setCreditLimit(card.getCreditLimit());
-        dto.setCashLimit(card.getCashLimit());
-        dto.setAvailableCreditLimit(card.getAvailableCreditLimit());
-        dto.setAvailableCashLimit(card.getAvailableCashLimit());
-        dto.setLastUpdateTime(card.getLastUpdateTime());
+        if (fields.contains(CardField.CARD_NUMBER)) {
+            dto.setCardNumber(CardNumberUtils.maskCardNumber(plainCardNumber));
+        }
+        if (fields.contains(CardField.MASK_ID)) {
+            dto.setMaskId(CardNumberUtils.generateMaskId(plainCardNumber));
+        }
+        if (fields.contains(CardField.EXPIRY_DATE)) {
+            dto.setExpiryDate(card.getExpiryDate());
+        }
+        if (fields.contains(CardField.STATUS_CODE)) {
+            dto.setStatusCode(card.getStatusCode());
+        }
+        if (fields.contains(CardField.CREDIT_LIMIT)) {
+            dto.setCreditLimit(card.getCreditLimit());
+        }
+        if (fields.contains(CardField.CASH_LIMIT)) {
+            dto.setCashLimit(card.getCashLimit());
+        }
+        if (fields.contains(CardField.AVAILABLE_CREDIT_LIMIT)) {
+            dto.setAvailableCreditLimit(card.getAvailableCreditLimit());
+        }
+        if (fields.contains(CardField.AVAILABLE_CASH_LIMIT)) {
+            dto.setAvailableCashLimit(card.getAvailableCashLimit());
+        }
+        if (fields.contains(CardField.LAST_UPDATE_TIME)) {
+            dto.setLastUpdateTime(card.getLastUpdateTime());
+        }
         
         return dto;
     }
     
     public List<CardResponseDto> toCardResponseDtoList(List<Card> cards) {
+        return toCardResponseDtoList(cards, CardField.ALL);
+    }
+
+    public List<CardResponseDto> toCardResponseDtoList(List<Card> cards, Set<CardField> fields) {
         return cards.stream()
-                .map(this::toCardResponseDto)
+                .map(card -> toCardResponseDto(card, fields))
                 .collect(Collectors.toList());
     }
     
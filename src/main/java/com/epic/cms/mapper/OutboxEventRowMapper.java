@@ -0,0 +1,26 @@
+package com.epic.cms.mapper;
+
+import com.epic.cms.model.OutboxEvent;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+@Component
+public class OutboxEventRowMapper implements RowMapper<OutboxEvent> {
+
+    @Override
+    public OutboxEvent mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return OutboxEvent.builder()
+                .eventId(rs.getLong("event_id"))
+                .aggregateId(rs.getString("aggregate_id"))
+                .eventType(rs.getString("event_type"))
+                .payload(rs.getString("payload"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .publishedAt(rs.getTimestamp("published_at") != null
+                    ? rs.getTimestamp("published_at").toLocalDateTime()
+                    : null)
+                .build();
+    }
+}
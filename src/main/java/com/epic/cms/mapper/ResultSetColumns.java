@@ -0,0 +1,36 @@
+package com.epic.cms.mapper;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Column positions of one result set, read from its metadata once so mappers can fetch by index on
+ * every row. Columns the query did not select resolve to {@link #ABSENT}.
+ */
+final class ResultSetColumns {
+
+    static final int ABSENT = 0;
+
+    private final Map<String, Integer> indexes;
+
+    private ResultSetColumns(Map<String, Integer> indexes) {
+        this.indexes = indexes;
+    }
+
+    static ResultSetColumns of(ResultSet rs) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            indexes.putIfAbsent(metaData.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+        return new ResultSetColumns(indexes);
+    }
+
+    int indexOf(String column) {
+        return indexes.getOrDefault(column, ABSENT);
+    }
+}
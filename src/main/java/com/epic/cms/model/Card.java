@@ -1,14 +1,19 @@
 package com.epic.cms.model;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class Card {
+    private Long cardId;
     private String cardNumber; // Encrypted in DB, plain text in memory
     private LocalDate expiryDate;
     private String statusCode;
@@ -17,4 +22,6 @@ public class Card {
     private BigDecimal availableCreditLimit;
     private BigDecimal availableCashLimit;
     private LocalDateTime lastUpdateTime;
+    private String maskId;              // SHA-256 based MASK_ id of the plain number, indexed for lookups
+    private String cardNumberEnds;      // first four and last four digits, indexed for masked-number lookups
 }
@@ -0,0 +1,19 @@
+package com.epic.cms.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder(toBuilder = true)
+public class CardAuthorization {
+    private String authorizationId;     // UUID, assigned by the ledger
+    private Long cardId;
+    private String authType;            // CREDIT / CASH
+    private BigDecimal amount;
+    private String status;              // HELD / CAPTURED / RELEASED
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,16 @@
+package com.epic.cms.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class CardHistory {
+    private Long historyId;
+    private Long cardId;
+    private String changeType;          // CARD_CREATED / CARD_UPDATED / CARD_STATUS_CHANGED
+    private String changes;             // JSON diff: {"field": [old, new], ...}
+    private LocalDateTime changedAt;
+}
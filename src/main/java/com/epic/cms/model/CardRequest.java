@@ -1,14 +1,19 @@
 package com.epic.cms.model;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class CardRequest {
     private Long requestId;
-    private String cardNumber;
+    private Long cardId;
+    private String cardNumber;          // joined from card: encrypted in DB, plain text in responses
     private String requestReasonCode;   // ACTI / CDCL
     private String statusCode;          // PENDING / APPROVED / REJECTED
     private LocalDateTime createTime;
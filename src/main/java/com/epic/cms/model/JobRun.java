@@ -0,0 +1,19 @@
+package com.epic.cms.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class JobRun {
+    private Long runId;
+    private String jobName;
+    private String nodeId;              // instance that held the job's lock
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long durationMs;
+    private String status;              // SUCCEEDED / FAILED
+    private String errorMessage;
+}
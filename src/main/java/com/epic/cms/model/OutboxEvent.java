@@ -0,0 +1,17 @@
+package com.epic.cms.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class OutboxEvent {
+    private Long eventId;
+    private String aggregateId;         // mask id of the card
+    private String eventType;           // CardChangeEvent.ChangeType name
+    private String payload;             // JSON
+    private LocalDateTime createdAt;
+    private LocalDateTime publishedAt;
+}
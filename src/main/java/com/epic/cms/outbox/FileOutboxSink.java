@@ -0,0 +1,55 @@
+package com.epic.cms.outbox;
+
+import com.epic.cms.model.OutboxEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends each batch to a JSON-lines file, one event per line.
+ */
+@Component
+@ConditionalOnProperty(prefix = "cms.outbox", name = "sink", havingValue = "file")
+public class FileOutboxSink implements OutboxSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileOutboxSink.class);
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public FileOutboxSink(ObjectMapper objectMapper, @Value("${cms.outbox.file.path:logs/outbox-events.jsonl}") String path) {
+        this.objectMapper = objectMapper;
+        this.path = Path.of(path);
+        logger.info("FileOutboxSink writing to {}", this.path.toAbsolutePath());
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (OutboxEvent event : events) {
+                ObjectNode line = objectMapper.createObjectNode();
+                line.put("eventId", event.getEventId());
+                line.put("eventType", event.getEventType());
+                line.put("aggregateId", event.getAggregateId());
+                line.put("createdAt", event.getCreatedAt().toString());
+                line.set("payload", objectMapper.readTree(event.getPayload()));
+                writer.write(objectMapper.writeValueAsString(line));
+                writer.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.epic.cms.outbox;
+
+import com.epic.cms.model.OutboxEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Collects relayed events in memory; meant for tests and load runs.
+ */
+@Component
+@ConditionalOnProperty(prefix = "cms.outbox", name = "sink", havingValue = "memory")
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final ConcurrentLinkedQueue<OutboxEvent> events = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void publish(List<OutboxEvent> batch) {
+        events.addAll(batch);
+    }
+
+    public List<OutboxEvent> getEvents() {
+        return new ArrayList<>(events);
+    }
+
+    public void clear() {
+        events.clear();
+    }
+}
@@ -0,0 +1,24 @@
+package com.epic.cms.outbox;
+
+import com.epic.cms.model.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(prefix = "cms.outbox", name = "sink", havingValue = "log", matchIfMissing = true)
+public class LoggingOutboxSink implements OutboxSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingOutboxSink.class);
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            logger.info("Outbox event {} {} for {}: {}", event.getEventId(), event.getEventType(),
+                    event.getAggregateId(), event.getPayload());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.epic.cms.outbox;
+
+import com.epic.cms.event.CardChangeEvent;
+import com.epic.cms.event.CardChangeEvent.ChangeType;
+import com.epic.cms.model.OutboxEvent;
+import com.epic.cms.repository.OutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes downstream-relevant {@link CardChangeEvent}s to the outbox. The listener is synchronous,
+ * so the row is inserted in the service's transaction and commits or rolls back with the change.
+ */
+@Component
+@ConditionalOnProperty(prefix = "cms.outbox", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxEventWriter {
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final Set<ChangeType> eventTypes;
+
+    public OutboxEventWriter(OutboxRepository outboxRepository, ObjectMapper objectMapper,
+                             @Value("${cms.outbox.event-types:CARD_STATUS_CHANGED,CARD_UPDATED}") List<ChangeType> eventTypes) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+        this.eventTypes = eventTypes.isEmpty() ? EnumSet.noneOf(ChangeType.class) : EnumSet.copyOf(eventTypes);
+    }
+
+    @EventListener
+    public void onChange(CardChangeEvent event) throws JsonProcessingException {
+        if (!eventTypes.contains(event.getType())) {
+            return;
+        }
+        outboxRepository.save(OutboxEvent.builder()
+                .aggregateId(event.getMaskId())
+                .eventType(event.getType().name())
+                .payload(objectMapper.writeValueAsString(event))
+                .createdAt(event.getOccurredAt())
+                .build());
+    }
+}
@@ -0,0 +1,114 @@
+package com.epic.cms.outbox;
+
+import com.epic.cms.job.JobRunner;
+import com.epic.cms.model.OutboxEvent;
+import com.epic.cms.repository.OutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox to the configured {@link OutboxSink} off the request path.
+ * <p>
+ * Each batch is claimed with {@code FOR UPDATE SKIP LOCKED}, handed to the sink in event_id order
+ * and marked published in the same transaction; a sink failure rolls the batch back for the next
+ * run. Relaying is leader-elected so a single instance preserves a total order across batches; the
+ * row locks keep a brief overlap during failover from publishing anything twice.
+ */
+@Component
+@ConditionalOnProperty(prefix = "cms.outbox", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final JobRunner jobRunner;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long retentionHours;
+    private final Counter published;
+    private final AtomicLong backlog = new AtomicLong();
+
+    public OutboxRelay(OutboxRepository outboxRepository, OutboxSink sink,
+                       PlatformTransactionManager transactionManager, MeterRegistry meterRegistry, JobRunner jobRunner,
+                       @Value("${cms.outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${cms.outbox.relay.max-batches-per-run:20}") int maxBatchesPerRun,
+                       @Value("${cms.outbox.retention-hours:168}") long retentionHours) {
+        this.outboxRepository = outboxRepository;
+        this.sink = sink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jobRunner = jobRunner;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.retentionHours = retentionHours;
+        this.published = Counter.builder("cms.outbox.published")
+                .description("Outbox events handed to the sink")
+                .register(meterRegistry);
+        Gauge.builder("cms.outbox.backlog", backlog, AtomicLong::get)
+                .description("Unpublished outbox events at the last relay check")
+                .register(meterRegistry);
+        logger.info("OutboxRelay initialized with sink {}", sink.getClass().getSimpleName());
+    }
+
+    @Scheduled(fixedDelayString = "${cms.outbox.relay.poll-interval-ms:200}")
+    public void relay() {
+        // A failed batch is rolled back and retried on the next run
+        jobRunner.runIfLeader("outbox-relay", () -> {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                Integer relayed = transactionTemplate.execute(status -> relayBatch());
+                if (relayed == null || relayed < batchSize) {
+                    break;
+                }
+            }
+        });
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> events = outboxRepository.lockUnpublishedBatch(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        try {
+            sink.publish(events);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Outbox sink failed", e);
+        }
+        outboxRepository.markPublished(events.stream().map(OutboxEvent::getEventId).toList());
+        published.increment(events.size());
+        logger.debug("Relayed {} outbox events ({}..{})", events.size(),
+                events.get(0).getEventId(), events.get(events.size() - 1).getEventId());
+        return events.size();
+    }
+
+    @Scheduled(fixedDelayString = "${cms.outbox.maintenance-interval-ms:60000}")
+    public void maintain() {
+        // Every instance reports the backlog; only one purges
+        try {
+            backlog.set(outboxRepository.countUnpublished());
+        } catch (Exception e) {
+            logger.error("Outbox backlog check failed: {}", e.getMessage(), e);
+        }
+        jobRunner.runIfLeader("outbox-retention", () -> {
+            int purged = outboxRepository.deletePublishedBefore(LocalDateTime.now().minusHours(retentionHours));
+            if (purged > 0) {
+                logger.info("Purged {} published outbox events older than {}h", purged, retentionHours);
+            }
+        });
+    }
+}
@@ -0,0 +1,15 @@
+package com.epic.cms.outbox;
+
+import com.epic.cms.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination of relayed outbox events. A batch is marked published only when {@code publish}
+ * returns normally, so delivery is at-least-once; sinks must tolerate a redelivered batch
+ * (event ids are stable for de-duplication).
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxEvent> events) throws Exception;
+}
@@ -0,0 +1,66 @@
+package com.epic.cms.repository;
+
+import com.epic.cms.mapper.CardAuthorizationRowMapper;
+import com.epic.cms.model.CardAuthorization;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public class CardAuthorizationRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CardAuthorizationRowMapper rowMapper;
+
+    public CardAuthorizationRepository(JdbcTemplate jdbcTemplate, CardAuthorizationRowMapper rowMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rowMapper = rowMapper;
+    }
+
+    public Optional<CardAuthorization> findById(String authorizationId) {
+        List<CardAuthorization> rows = jdbcTemplate.query(
+                "SELECT * FROM card_authorization WHERE authorization_id = ?", rowMapper, authorizationId);
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    public void insertAll(List<CardAuthorization> authorizations) {
+        if (authorizations.isEmpty()) {
+            return;
+        }
+        String sql = """
+            INSERT INTO card_authorization (authorization_id, card_id, auth_type, amount, status, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+        """;
+        List<Object[]> args = new ArrayList<>(authorizations.size());
+        for (CardAuthorization authorization : authorizations) {
+            args.add(new Object[]{
+                    authorization.getAuthorizationId(),
+                    authorization.getCardId(),
+                    authorization.getAuthType(),
+                    authorization.getAmount(),
+                    authorization.getStatus(),
+                    java.sql.Timestamp.valueOf(authorization.getCreatedAt()),
+                    java.sql.Timestamp.valueOf(authorization.getUpdatedAt())
+            });
+        }
+        jdbcTemplate.batchUpdate(sql, args);
+    }
+
+    // Moves a hold on the given card out of HELD; empty when there is no such hold or it has
+    // already been captured or released
+    public Optional<CardAuthorization> settle(String authorizationId, Long cardId, String status, LocalDateTime updatedAt) {
+        String sql = """
+            UPDATE card_authorization
+            SET status = ?, updated_at = ?
+            WHERE authorization_id = ? AND card_id = ? AND status = 'HELD'
+            RETURNING *
+        """;
+        return jdbcTemplate.query(sql, rowMapper, status, java.sql.Timestamp.valueOf(updatedAt), authorizationId, cardId)
+                .stream()
+                .findFirst();
+    }
+}
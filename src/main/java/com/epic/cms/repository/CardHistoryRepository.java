@@ -0,0 +1,55 @@
+package com.epic.cms.repository;
+
+import com.epic.cms.mapper.CardHistoryRowMapper;
+import com.epic.cms.model.CardHistory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+public class CardHistoryRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CardHistoryRowMapper rowMapper;
+
+    public CardHistoryRepository(JdbcTemplate jdbcTemplate, CardHistoryRowMapper rowMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rowMapper = rowMapper;
+    }
+
+    // One multi-row INSERT per call, independent of the driver's batch rewriting
+    public void insertAll(List<CardHistory> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        StringBuilder sql = new StringBuilder("INSERT INTO card_history (card_id, change_type, changes, changed_at) VALUES ");
+        List<Object> args = new ArrayList<>(entries.size() * 4);
+        for (int i = 0; i < entries.size(); i++) {
+            CardHistory entry = entries.get(i);
+            sql.append(i == 0 ? "(?, ?, ?, ?)" : ", (?, ?, ?, ?)");
+            args.add(entry.getCardId());
+            args.add(entry.getChangeType());
+            args.add(entry.getChanges());
+            args.add(java.sql.Timestamp.valueOf(entry.getChangedAt()));
+        }
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    public List<CardHistory> findByCardIdBefore(Long cardId, LocalDateTime beforeChangedAt,
+                                                Long beforeHistoryId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM card_history WHERE card_id = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(cardId);
+        if (beforeChangedAt != null) {
+            sql.append(" AND (changed_at, history_id) < (?, ?)");
+            args.add(java.sql.Timestamp.valueOf(beforeChangedAt));
+            args.add(beforeHistoryId);
+        }
+        sql.append(" ORDER BY changed_at DESC, history_id DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), rowMapper, args.toArray());
+    }
+}
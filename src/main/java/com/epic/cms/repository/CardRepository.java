@@ -1,13 +1,21 @@
 package com.epic.cms.repository;
 
+import com.epic.cms.dto.CardSearchCriteria;
 import com.epic.cms.mapper.CardRowMapper;
 import com.epic.cms.model.Card;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -25,16 +33,17 @@ public class CardRepository {
         logger.info("CardRepository initialized");
     }
 
+    // List view: only the columns a card response shows
     public List<Card> findAll() {
         String operationId = UUID.randomUUID().toString();
         MDC.put("operationId", operationId);
         
-        logger.debug("findAll() - Executing query: SELECT * FROM card");
+        logger.debug("findAll() - Executing query: SELECT {} FROM card", CardRowMapper.LIST_COLUMNS);
         long startTime = System.currentTimeMillis();
         
         try {
-            String sql = "SELECT * FROM card";
-            List<Card> result = jdbcTemplate.query(sql, rowMapper);
+            String sql = "SELECT " + CardRowMapper.LIST_COLUMNS + " FROM card";
+            List<Card> result = jdbcTemplate.query(sql, rowMapper.forQuery());
             
             long duration = System.currentTimeMillis() - startTime;
             
@@ -50,6 +59,11 @@ public class CardRepository {
     }
 
     public List<Card> findAllWithPagination(int offset, int limit) {
+        return findAllWithPagination(offset, limit, CardRowMapper.LIST_COLUMNS);
+    }
+
+    // columns is a projection built from known column names (see CardField), never from input
+    public List<Card> findAllWithPagination(int offset, int limit, String columns) {
         String operationId = UUID.randomUUID().toString();
         MDC.put("operationId", operationId);
         
@@ -57,8 +71,8 @@ public class CardRepository {
         long startTime = System.currentTimeMillis();
         
         try {
-            String sql = "SELECT * FROM card ORDER BY card_number LIMIT ? OFFSET ?";
-            List<Card> result = jdbcTemplate.query(sql, rowMapper, limit, offset);
+            String sql = "SELECT " + columns + " FROM card ORDER BY card_id LIMIT ? OFFSET ?";
+            List<Card> result = jdbcTemplate.query(sql, rowMapper.forQuery(), limit, offset);
 
             long duration = System.currentTimeMillis() - startTime;
             
@@ -105,8 +119,8 @@ public class CardRepository {
         long startTime = System.currentTimeMillis();
         
         try {
-            String sql = "SELECT * FROM card WHERE card_number = ?";
-            List<Card> cards = jdbcTemplate.query(sql, rowMapper, encryptedCardNumber);
+            String sql = "SELECT " + CardRowMapper.COLUMNS + " FROM card WHERE card_number = ?";
+            List<Card> cards = jdbcTemplate.query(sql, rowMapper.forQuery(), encryptedCardNumber);
             
             Optional<Card> result = cards.isEmpty() ? Optional.empty() : Optional.of(cards.get(0));
             
@@ -131,6 +145,223 @@ public class CardRepository {
         }
     }
 
+    public List<Card> findByCardNumbers(List<String> encryptedCardNumbers) {
+        return findByColumnIn("card_number", "varchar", encryptedCardNumbers);
+    }
+
+    public Optional<Card> findById(Long cardId) {
+        return jdbcTemplate.query("SELECT " + CardRowMapper.COLUMNS + " FROM card WHERE card_id = ?", rowMapper.forQuery(), cardId)
+                .stream()
+                .findFirst();
+    }
+
+    public List<Card> findByIds(List<Long> cardIds) {
+        return findByColumnIn("card_id", "bigint", cardIds);
+    }
+
+    // One number under several key versions; at most one of them is stored
+    public Optional<Card> findByAnyCardNumber(List<String> encryptedCandidates) {
+        if (encryptedCandidates.size() == 1) {
+            return findByCardNumber(encryptedCandidates.get(0));
+        }
+        return findByCardNumbers(encryptedCandidates).stream().findFirst();
+    }
+
+    public Optional<String> findStoredCardNumber(List<String> encryptedCandidates) {
+        List<String> stored = jdbcTemplate.query("SELECT card_number FROM card WHERE card_number = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", encryptedCandidates.toArray())),
+                (rs, rowNum) -> rs.getString(1));
+        return stored.stream().findFirst();
+    }
+
+    public List<Card> findByMaskIds(List<String> maskIds) {
+        return findByColumnIn("mask_id", "varchar", maskIds);
+    }
+
+    // Candidates for masked numbers; several cards can share the same first and last four digits
+    public List<Card> findByCardNumberEnds(List<String> cardNumberEnds) {
+        return findByColumnIn("card_number_ends", "varchar", cardNumberEnds);
+    }
+
+    private List<Card> findByColumnIn(String column, String sqlType, List<?> values) {
+        String operationId = UUID.randomUUID().toString();
+        MDC.put("operationId", operationId);
+        
+        logger.debug("findBy{}s(count={}) - Executing query", column, values.size());
+        long startTime = System.currentTimeMillis();
+        
+        try {
+            String sql = "SELECT " + CardRowMapper.COLUMNS + " FROM card WHERE " + column + " = ANY(?)";
+            List<Card> result = jdbcTemplate.query(sql,
+                    ps -> ps.setArray(1, ps.getConnection().createArrayOf(sqlType, values.toArray())),
+                    rowMapper.forQuery());
+            
+            long duration = System.currentTimeMillis() - startTime;
+            
+            logger.debug("findBy{}s(count={}) - Query executed in {}ms, returned {} records", 
+                        column, values.size(), duration, result.size());
+            return result;
+        } catch (Exception e) {
+            logger.error("findBy{}s(count={}) - Database error: {}", column, values.size(), e.getMessage(), e);
+            throw e;
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    public List<Card> search(CardSearchCriteria criteria, Long afterCardId, int limit) {
+        String operationId = UUID.randomUUID().toString();
+        MDC.put("operationId", operationId);
+        
+        StringBuilder sql = new StringBuilder("SELECT card_id, " + CardRowMapper.LIST_COLUMNS + " FROM card WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (criteria.getStatusCode() != null) {
+            sql.append(" AND status_code = ?");
+            args.add(criteria.getStatusCode());
+        }
+        if (criteria.getExpiryAfter() != null) {
+            sql.append(" AND expiry_date >= ?");
+            args.add(java.sql.Date.valueOf(criteria.getExpiryAfter()));
+        }
+        if (criteria.getExpiryBefore() != null) {
+            sql.append(" AND expiry_date <= ?");
+            args.add(java.sql.Date.valueOf(criteria.getExpiryBefore()));
+        }
+        if (criteria.getMinCreditLimit() != null) {
+            sql.append(" AND credit_limit >= ?");
+            args.add(criteria.getMinCreditLimit());
+        }
+        if (criteria.getMaxCreditLimit() != null) {
+            sql.append(" AND credit_limit <= ?");
+            args.add(criteria.getMaxCreditLimit());
+        }
+        if (criteria.getUpdatedSince() != null) {
+            sql.append(" AND last_update_time >= ?");
+            args.add(java.sql.Timestamp.valueOf(criteria.getUpdatedSince()));
+        }
+        if (afterCardId != null) {
+            sql.append(" AND card_id > ?");
+            args.add(afterCardId);
+        }
+        sql.append(" ORDER BY card_id LIMIT ?");
+        args.add(limit);
+        
+        logger.debug("search(criteria={}, limit={}) - Executing query: {}", criteria, limit, sql);
+        long startTime = System.currentTimeMillis();
+        
+        try {
+            List<Card> result = jdbcTemplate.query(sql.toString(), rowMapper.forQuery(), args.toArray());
+            
+            long duration = System.currentTimeMillis() - startTime;
+            
+            logger.debug("search(criteria={}, limit={}) - Query executed in {}ms, returned {} records", 
+                        criteria, limit, duration, result.size());
+            return result;
+        } catch (Exception e) {
+            logger.error("search(criteria={}, limit={}) - Database error: {}", criteria, limit, e.getMessage(), e);
+            throw e;
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    // Cards missing either lookup column derived from the plain number, in card_id order. Returns
+    // only the id and ciphertext of each.
+    public List<Card> findCardNumbersWithoutMaskId(long afterCardId, int limit) {
+        String sql = """
+            SELECT card_id, card_number FROM card
+            WHERE (mask_id IS NULL OR card_number_ends IS NULL) AND card_id > ?
+            ORDER BY card_id
+            LIMIT ?
+        """;
+        return jdbcTemplate.query(sql, rowMapper.forQuery(), afterCardId, limit);
+    }
+
+    public void updateMaskIds(List<Object[]> maskIdEndsAndCardId) {
+        jdbcTemplate.batchUpdate("UPDATE card SET mask_id = ?, card_number_ends = ? WHERE card_id = ?",
+                maskIdEndsAndCardId);
+    }
+
+    // Cards whose ciphertext is not under the active key, in card_id order, with only the id and
+    // ciphertext of each. Bare ciphertext is version 1 and versioned ciphertext carries a "v<n>:" prefix.
+    public List<Card> findCardNumbersNotUnderKey(String activePrefix, long afterCardId, int limit) {
+        String sql = "SELECT card_id, card_number FROM card WHERE card_id > ? AND "
+                + rekeyFilter(activePrefix) + " ORDER BY card_id LIMIT ?";
+        return activePrefix.isEmpty()
+                ? jdbcTemplate.query(sql, rowMapper.forQuery(), afterCardId, limit)
+                : jdbcTemplate.query(sql, rowMapper.forQuery(), afterCardId, activePrefix + "%", limit);
+    }
+
+    public long countNotUnderKey(String activePrefix) {
+        String sql = "SELECT COUNT(*) FROM card WHERE " + rekeyFilter(activePrefix);
+        return activePrefix.isEmpty()
+                ? jdbcTemplate.queryForObject(sql, Long.class)
+                : jdbcTemplate.queryForObject(sql, Long.class, activePrefix + "%");
+    }
+
+    private static String rekeyFilter(String activePrefix) {
+        return activePrefix.isEmpty() ? "strpos(card_number, ':') > 0" : "card_number NOT LIKE ?";
+    }
+
+    // Other tables reference card_id, so a card's ciphertext lives in this row alone
+    public int[] updateCardNumbers(List<Object[]> newAndOldCardNumber) {
+        return jdbcTemplate.batchUpdate("UPDATE card SET card_number = ? WHERE card_number = ?", newAndOldCardNumber);
+    }
+
+    // Claims up to limit expired active cards, skipping rows an online transaction has locked;
+    // they are picked up by a later chunk. Returns only the id and ciphertext of each.
+    public List<Card> deactivateExpired(LocalDate today, int limit) {
+        String sql = """
+            UPDATE card
+            SET status_code = 'DACT', last_update_time = ?
+            WHERE status_code = 'CACT'
+              AND card_id IN (
+                SELECT card_id FROM card
+                WHERE status_code = 'CACT' AND expiry_date < ?
+                ORDER BY expiry_date
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)
+            RETURNING card_id, card_number
+        """;
+        return jdbcTemplate.query(sql, rowMapper.forQuery(),
+                java.sql.Timestamp.valueOf(LocalDateTime.now()), java.sql.Date.valueOf(today), limit);
+    }
+
+    public long countExpiredActive(LocalDate today) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM card WHERE status_code = 'CACT' AND expiry_date < ?",
+                Long.class, java.sql.Date.valueOf(today));
+    }
+
+    // Authorization holds: takes the credit and cash amounts off an active, unexpired card only if
+    // both are covered, so the row decides regardless of which instance asks. Each row is (credit
+    // amount, cash amount, card_number, today, credit amount, cash amount); returns 1 per hold taken
+    // and 0 per decline. Balance movements are not card edits, so last_update_time is left alone.
+    public int[] holdAvailable(List<Object[]> holds) {
+        String sql = """
+            UPDATE card
+            SET available_credit_limit = available_credit_limit - ?,
+                available_cash_limit = available_cash_limit - ?
+            WHERE card_number = ?
+              AND status_code = 'CACT'
+              AND expiry_date >= ?
+              AND available_credit_limit >= ?
+              AND available_cash_limit >= ?
+        """;
+        return jdbcTemplate.batchUpdate(sql, holds);
+    }
+
+    // A released hold's amounts go back onto the card; returns the card as it now stands
+    public Optional<Card> restoreAvailable(Long cardId, BigDecimal creditAmount, BigDecimal cashAmount) {
+        String sql = """
+            UPDATE card
+            SET available_credit_limit = available_credit_limit + ?,
+                available_cash_limit = available_cash_limit + ?
+            WHERE card_id = ?
+            RETURNING card_id, card_number, available_credit_limit, available_cash_limit
+        """;
+        return jdbcTemplate.query(sql, rowMapper.forQuery(), creditAmount, cashAmount, cardId).stream().findFirst();
+    }
+
     public void save(Card card) {
         String operationId = UUID.randomUUID().toString();
         MDC.put("operationId", operationId);
@@ -147,20 +378,26 @@ public class CardRepository {
                 (card_number, expiry_date, status_code,
                  credit_limit, cash_limit,
                  available_credit_limit, available_cash_limit,
-                 last_update_time)
-                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                 last_update_time, mask_id, card_number_ends)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
             """;
 
-            int rowsAffected = jdbcTemplate.update(sql,
-                    card.getCardNumber(),
-                    java.sql.Date.valueOf(card.getExpiryDate()),
-                    card.getStatusCode(),
-                    card.getCreditLimit(),
-                    card.getCashLimit(),
-                    card.getAvailableCreditLimit(),
-                    card.getAvailableCashLimit(),
-                    java.sql.Timestamp.valueOf(card.getLastUpdateTime())
-            );
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            int rowsAffected = jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(sql, new String[]{"card_id"});
+                ps.setString(1, card.getCardNumber());
+                ps.setDate(2, java.sql.Date.valueOf(card.getExpiryDate()));
+                ps.setString(3, card.getStatusCode());
+                ps.setBigDecimal(4, card.getCreditLimit());
+                ps.setBigDecimal(5, card.getCashLimit());
+                ps.setBigDecimal(6, card.getAvailableCreditLimit());
+                ps.setBigDecimal(7, card.getAvailableCashLimit());
+                ps.setTimestamp(8, java.sql.Timestamp.valueOf(card.getLastUpdateTime()));
+                ps.setString(9, card.getMaskId());
+                ps.setString(10, card.getCardNumberEnds());
+                return ps;
+            }, keyHolder);
+            card.setCardId(keyHolder.getKeyAs(Number.class).longValue());
             
             long duration = System.currentTimeMillis() - startTime;
             
@@ -179,7 +416,8 @@ public class CardRepository {
         }
     }
 
-    public void update(Card card) {
+    // Returns the rows updated: 0 when the card is gone or the limit change was refused
+    public int update(Card card) {
         String operationId = UUID.randomUUID().toString();
         MDC.put("operationId", operationId);
         
@@ -190,16 +428,21 @@ public class CardRepository {
         long startTime = System.currentTimeMillis();
         
         try {
+            // Available limits move by the limit delta against the current row rather than being
+            // overwritten, so authorization holds are never lost. A lower limit that the holds
+            // outstanding at this moment would take below zero updates nothing.
             String sql = """
                 UPDATE card 
                 SET expiry_date = ?, 
                     status_code = ?,
                     credit_limit = ?, 
                     cash_limit = ?, 
-                    available_credit_limit = ?, 
-                    available_cash_limit = ?, 
+                    available_credit_limit = available_credit_limit + (? - credit_limit), 
+                    available_cash_limit = available_cash_limit + (? - cash_limit), 
                     last_update_time = ?
-                WHERE card_number = ?
+                WHERE card_id = ?
+                  AND available_credit_limit + (? - credit_limit) >= 0
+                  AND available_cash_limit + (? - cash_limit) >= 0
             """;
 
             int rowsAffected = jdbcTemplate.update(sql,
@@ -207,10 +450,12 @@ public class CardRepository {
                     card.getStatusCode(),
                     card.getCreditLimit(),
                     card.getCashLimit(),
-                    card.getAvailableCreditLimit(),
-                    card.getAvailableCashLimit(),
+                    card.getCreditLimit(),
+                    card.getCashLimit(),
                     java.sql.Timestamp.valueOf(card.getLastUpdateTime()),
-                    card.getCardNumber()
+                    card.getCardId(),
+                    card.getCreditLimit(),
+                    card.getCashLimit()
             );
             
             long duration = System.currentTimeMillis() - startTime;
@@ -220,10 +465,11 @@ public class CardRepository {
                 logger.debug("update(encryptedCardNumber={}) - Update complete: availableCreditLimit={}, availableCashLimit={}", 
                             card.getCardNumber(), card.getAvailableCreditLimit(), card.getAvailableCashLimit());
             } else if (rowsAffected == 0) {
-                logger.warn("update(encryptedCardNumber={}) - No rows affected - card may not exist", card.getCardNumber());
+                logger.warn("update(encryptedCardNumber={}) - No rows affected - card may not exist or holds exceed the new limits", card.getCardNumber());
             } else {
                 logger.warn("update(encryptedCardNumber={}) - Unexpected row count: {}", card.getCardNumber(), rowsAffected);
             }
+            return rowsAffected;
         } catch (Exception e) {
             logger.error("update(encryptedCardNumber={}) - Database error during update: {}", card.getCardNumber(), e.getMessage(), e);
             throw e;
@@ -0,0 +1,90 @@
+package com.epic.cms.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * DDL for the monthly partitions of {@code card_request}. Partitions are named
+ * {@code card_request_pYYYYMM} and cover {@code [first day of month, first day of next month)};
+ * names are built from dates only, never from input, so they are safe to splice into SQL.
+ */
+@Repository
+public class CardRequestPartitionRepository {
+
+    public static final String ARCHIVE_SCHEMA = "card_request_archive";
+
+    private static final String PARTITION_PREFIX = "card_request_p";
+    private static final DateTimeFormatter MONTH_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CardRequestPartitionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Months of the partitions currently attached to card_request, oldest first
+    public List<YearMonth> findAttachedMonths() {
+        String sql = """
+            SELECT c.relname
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'card_request'::regclass
+            ORDER BY c.relname
+        """;
+        return jdbcTemplate.queryForList(sql, String.class).stream()
+                .map(CardRequestPartitionRepository::monthOf)
+                .flatMap(Optional::stream)
+                .toList();
+    }
+
+    public void createPartition(YearMonth month) {
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                + " PARTITION OF card_request FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+    }
+
+    public boolean hasPendingRequests(YearMonth month) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + partitionName(month) + " WHERE status_code = 'PENDING')",
+                Boolean.class));
+    }
+
+    public long countRows(YearMonth month) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + partitionName(month), Long.class);
+    }
+
+    /**
+     * Detaches the month's partition and moves it into the archive schema. Must run in a transaction;
+     * the detach briefly locks card_request, so the lock wait is capped rather than queueing
+     * online traffic behind it.
+     */
+    public void archivePartition(YearMonth month, long lockTimeoutMs) {
+        String name = partitionName(month);
+        jdbcTemplate.execute("SET LOCAL lock_timeout = " + lockTimeoutMs);
+        jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + ARCHIVE_SCHEMA);
+        jdbcTemplate.execute("ALTER TABLE card_request DETACH PARTITION " + name);
+        jdbcTemplate.execute("ALTER TABLE " + name + " SET SCHEMA " + ARCHIVE_SCHEMA);
+    }
+
+    public static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(MONTH_SUFFIX);
+    }
+
+    private static Optional<YearMonth> monthOf(String partitionName) {
+        if (!partitionName.startsWith(PARTITION_PREFIX)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(YearMonth.parse(partitionName.substring(PARTITION_PREFIX.length()), MONTH_SUFFIX));
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+}
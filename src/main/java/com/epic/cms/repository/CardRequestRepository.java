@@ -5,8 +5,13 @@ import com.epic.cms.model.CardRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +19,14 @@ import java.util.Optional;
 public class CardRequestRepository {
 
     private static final Logger logger = LoggerFactory.getLogger(CardRequestRepository.class);
+
+    // Requests reference their card by id; the ciphertext the mapper reads comes from the card row
+    private static final String SELECT_REQUEST = """
+        SELECT r.request_id, r.card_id, c.card_number, r.request_reason_code, r.status_code, r.create_time
+        FROM card_request r
+        JOIN card c ON c.card_id = r.card_id
+    """;
+
     private final JdbcTemplate jdbcTemplate;
     private final CardRequestRowMapper rowMapper;
 
@@ -25,33 +38,82 @@ public class CardRequestRepository {
     public void save(CardRequest cardRequest) {
         String sql = """
             INSERT INTO card_request 
-            (card_number, request_reason_code, status_code, create_time)
+            (card_id, request_reason_code, status_code, create_time)
             VALUES (?, ?, ?, ?)
         """;
 
-        jdbcTemplate.update(sql,
-                cardRequest.getCardNumber(),
-                cardRequest.getRequestReasonCode(),
-                cardRequest.getStatusCode(),
-                java.sql.Timestamp.valueOf(cardRequest.getCreateTime())
-        );
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, new String[]{"request_id"});
+            ps.setLong(1, cardRequest.getCardId());
+            ps.setString(2, cardRequest.getRequestReasonCode());
+            ps.setString(3, cardRequest.getStatusCode());
+            ps.setTimestamp(4, java.sql.Timestamp.valueOf(cardRequest.getCreateTime()));
+            return ps;
+        }, keyHolder);
+        cardRequest.setRequestId(keyHolder.getKeyAs(Number.class).longValue());
     }
 
+    // request_id alone cannot prune, so these probe each attached partition's primary key; archiving
+    // keeps that set to the hot months
     public Optional<CardRequest> findById(Long requestId) {
-        String sql = "SELECT * FROM card_request WHERE request_id = ?";
-        return jdbcTemplate.query(sql, rowMapper, requestId)
+        String sql = SELECT_REQUEST + " WHERE r.request_id = ?";
+        return jdbcTemplate.query(sql, rowMapper.forQuery(), requestId)
                 .stream()
                 .findFirst();
     }
 
+    // Serializes manual processing with the auto-decision batch on the same request
+    public Optional<CardRequest> findByIdForUpdate(Long requestId) {
+        String sql = SELECT_REQUEST + " WHERE r.request_id = ? FOR UPDATE OF r";
+        return jdbcTemplate.query(sql, rowMapper.forQuery(), requestId)
+                .stream()
+                .findFirst();
+    }
+
+    // Keyset batch of pending requests; rows being processed elsewhere are skipped, not waited on.
+    // Fully processed months hold no entries in the partial pending index, so they cost nothing here.
+    public List<CardRequest> lockPendingAfter(Long afterRequestId, int limit) {
+        String sql = SELECT_REQUEST + """
+            WHERE r.status_code = 'PENDING' AND r.request_id > ?
+            ORDER BY r.request_id
+            LIMIT ?
+            FOR UPDATE OF r SKIP LOCKED
+        """;
+        return jdbcTemplate.query(sql, rowMapper.forQuery(), afterRequestId, limit);
+    }
+
     public List<CardRequest> findAll() {
-        String sql = "SELECT * FROM card_request ORDER BY create_time DESC";
-        return jdbcTemplate.query(sql, rowMapper);
+        String sql = SELECT_REQUEST + " ORDER BY r.create_time DESC, r.request_id DESC";
+        return jdbcTemplate.query(sql, rowMapper.forQuery());
     }
 
+    // Ordered by the partition key, so the partitions are read newest first and a page stops
+    // in the months it needs
     public List<CardRequest> findAllWithPagination(int offset, int limit) {
-        String sql = "SELECT * FROM card_request ORDER BY create_time DESC LIMIT ? OFFSET ?";
-        return jdbcTemplate.query(sql, rowMapper, limit, offset);
+        String sql = SELECT_REQUEST + " ORDER BY r.create_time DESC, r.request_id DESC LIMIT ? OFFSET ?";
+        return jdbcTemplate.query(sql, rowMapper.forQuery(), limit, offset);
+    }
+
+    // Newest first; the (create_time, request_id) row comparison walks idx_request_card without a sort
+    // and prunes the partitions after the cursor
+    public List<CardRequest> findByCardIdBefore(Long cardId, String statusCode,
+                                                LocalDateTime beforeCreateTime, Long beforeRequestId, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_REQUEST).append(" WHERE r.card_id = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(cardId);
+        if (statusCode != null) {
+            sql.append(" AND r.status_code = ?");
+            args.add(statusCode);
+        }
+        if (beforeCreateTime != null) {
+            sql.append(" AND (r.create_time, r.request_id) < (?, ?)");
+            args.add(java.sql.Timestamp.valueOf(beforeCreateTime));
+            args.add(beforeRequestId);
+        }
+        sql.append(" ORDER BY r.create_time DESC, r.request_id DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), rowMapper.forQuery(), args.toArray());
     }
 
     public long countAllRequests() {
@@ -59,25 +121,26 @@ public class CardRequestRepository {
         return jdbcTemplate.queryForObject(sql, Long.class);
     }
 
+    // create_time is part of the key and pins the update to one partition
     public void update(CardRequest cardRequest) {
         String sql = """
             UPDATE card_request 
             SET status_code = ?
-            WHERE request_id = ?
+            WHERE request_id = ? AND create_time = ?
         """;
 
         jdbcTemplate.update(sql,
                 cardRequest.getStatusCode(),
-                cardRequest.getRequestId()
+                cardRequest.getRequestId(),
+                java.sql.Timestamp.valueOf(cardRequest.getCreateTime())
         );
     }
 
-    public List<CardRequest> findPendingRequestsByCardNumber(String encryptedCardNumber) {
-        String sql = """
-            SELECT * FROM card_request 
-            WHERE card_number = ? AND status_code = 'PENDING'
-            ORDER BY create_time DESC
+    public List<CardRequest> findPendingRequestsByCardId(Long cardId) {
+        String sql = SELECT_REQUEST + """
+            WHERE r.card_id = ? AND r.status_code = 'PENDING'
+            ORDER BY r.create_time DESC
         """;
-        return jdbcTemplate.query(sql, rowMapper, encryptedCardNumber);
+        return jdbcTemplate.query(sql, rowMapper.forQuery(), cardId);
     }
 }
@@ -0,0 +1,36 @@
+package com.epic.cms.repository;
+
+import com.epic.cms.model.JobRun;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public class JobRunRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JobRunRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void save(JobRun run) {
+        String sql = """
+            INSERT INTO job_run (job_name, node_id, started_at, finished_at, duration_ms, status, error_message)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+        """;
+        jdbcTemplate.update(sql,
+                run.getJobName(),
+                run.getNodeId(),
+                java.sql.Timestamp.valueOf(run.getStartedAt()),
+                java.sql.Timestamp.valueOf(run.getFinishedAt()),
+                run.getDurationMs(),
+                run.getStatus(),
+                run.getErrorMessage());
+    }
+
+    public int deleteStartedBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM job_run WHERE started_at < ?", java.sql.Timestamp.valueOf(cutoff));
+    }
+}
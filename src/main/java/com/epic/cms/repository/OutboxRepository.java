@@ -0,0 +1,58 @@
+package com.epic.cms.repository;
+
+import com.epic.cms.mapper.OutboxEventRowMapper;
+import com.epic.cms.model.OutboxEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public class OutboxRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxEventRowMapper rowMapper;
+
+    public OutboxRepository(JdbcTemplate jdbcTemplate, OutboxEventRowMapper rowMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rowMapper = rowMapper;
+    }
+
+    public void save(OutboxEvent event) {
+        String sql = """
+            INSERT INTO outbox_event (aggregate_id, event_type, payload, created_at)
+            VALUES (?, ?, ?, ?)
+        """;
+        jdbcTemplate.update(sql,
+                event.getAggregateId(),
+                event.getEventType(),
+                event.getPayload(),
+                java.sql.Timestamp.valueOf(event.getCreatedAt()));
+    }
+
+    // Rows stay locked until the caller's transaction ends; concurrent relays skip them
+    public List<OutboxEvent> lockUnpublishedBatch(int limit) {
+        String sql = """
+            SELECT * FROM outbox_event
+            WHERE published_at IS NULL
+            ORDER BY event_id
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+        """;
+        return jdbcTemplate.query(sql, rowMapper, limit);
+    }
+
+    public void markPublished(List<Long> eventIds) {
+        jdbcTemplate.update("UPDATE outbox_event SET published_at = CURRENT_TIMESTAMP WHERE event_id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", eventIds.toArray())));
+    }
+
+    public long countUnpublished() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_event WHERE published_at IS NULL", Long.class);
+    }
+
+    public int deletePublishedBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM outbox_event WHERE published_at < ?", java.sql.Timestamp.valueOf(cutoff));
+    }
+}
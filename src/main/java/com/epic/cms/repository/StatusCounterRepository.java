@@ -0,0 +1,74 @@
+package com.epic.cms.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Repository
+public class StatusCounterRepository {
+
+    static final int SLOTS = 8;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StatusCounterRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Keys are applied in sorted order on one slot per call, so two transactions never lock
+    // the same counter rows in opposite orders
+    public void applyDeltas(Map<String, Long> deltas) {
+        String sql = """
+            INSERT INTO status_counter (counter_key, slot, counter_value)
+            VALUES (?, ?, ?)
+            ON CONFLICT (counter_key, slot)
+            DO UPDATE SET counter_value = status_counter.counter_value + EXCLUDED.counter_value
+        """;
+        int slot = ThreadLocalRandom.current().nextInt(SLOTS);
+        List<Object[]> rows = new TreeMap<>(deltas).entrySet().stream()
+                .filter(entry -> entry.getValue() != 0)
+                .map(entry -> new Object[]{entry.getKey(), slot, entry.getValue()})
+                .toList();
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+
+    public Map<String, Long> findAll() {
+        String sql = "SELECT counter_key, SUM(counter_value) AS total FROM status_counter GROUP BY counter_key";
+        Map<String, Long> counters = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            counters.put(rs.getString("counter_key"), rs.getLong("total"));
+        });
+        return counters;
+    }
+
+    /**
+     * Serialises reconciliations until the caller's transaction ends, waiting at most lockTimeoutMs
+     * for this or any later lock in it. Counter writers are not blocked.
+     */
+    public void lockForReconciliation(long lockTimeoutMs) {
+        jdbcTemplate.execute("SET LOCAL lock_timeout = " + lockTimeoutMs);
+        jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(hashtext('status_counter_reconciliation'))", Object.class);
+    }
+
+    public Map<String, Long> countActual() {
+        String sql = """
+            SELECT 'card:' || status_code AS counter_key, COUNT(*) AS total
+            FROM card GROUP BY status_code
+            UNION ALL
+            SELECT 'request:' || status_code || ':' || request_reason_code, COUNT(*)
+            FROM card_request GROUP BY status_code, request_reason_code
+        """;
+        Map<String, Long> counters = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            counters.put(rs.getString("counter_key"), rs.getLong("total"));
+        });
+        return counters;
+    }
+}
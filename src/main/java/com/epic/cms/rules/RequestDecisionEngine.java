@@ -0,0 +1,154 @@
+package com.epic.cms.rules;
+
+import com.epic.cms.rules.RuleEngineProperties.Decision;
+import com.epic.cms.rules.RuleEngineProperties.Rule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Auto-decision rules for card requests, compiled at startup into a decision table.
+ * <p>
+ * The table is keyed by request type, then card status, then the two boolean facts; every value a
+ * rule names gets its own row and a wildcard row covers the rest. Each cell holds the first rule
+ * (in configured order) that matches it, or none, so evaluation is three lookups with no rule
+ * scanning. A request no rule matches is left for manual review.
+ */
+@Component
+@EnableConfigurationProperties(RuleEngineProperties.class)
+public class RequestDecisionEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestDecisionEngine.class);
+    private static final String ANY = "*";
+
+    private final boolean enabled;
+    private final Map<String, Map<String, Match[]>> table = new HashMap<>();
+    private final Counter unmatched;
+
+    public RequestDecisionEngine(RuleEngineProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.unmatched = Counter.builder("cms.rules.unmatched")
+                .description("Requests no rule decided, left for manual review")
+                .register(meterRegistry);
+        List<Rule> rules = properties.getDefinitions();
+        validate(rules);
+
+        Map<Rule, Match> matches = new HashMap<>();
+        for (Rule rule : rules) {
+            matches.put(rule, new Match(rule.getName(), rule.getDecision(), Counter.builder("cms.rules.hits")
+                    .description("Requests decided by each auto-decision rule")
+                    .tag("rule", rule.getName())
+                    .register(meterRegistry)));
+        }
+
+        Set<String> requestTypes = new LinkedHashSet<>();
+        Set<String> cardStatuses = new LinkedHashSet<>();
+        for (Rule rule : rules) {
+            if (rule.getRequestType() != null) {
+                requestTypes.add(rule.getRequestType());
+            }
+            if (rule.getCardStatus() != null) {
+                cardStatuses.add(rule.getCardStatus());
+            }
+        }
+        requestTypes.add(ANY);
+        cardStatuses.add(ANY);
+
+        for (String requestType : requestTypes) {
+            Map<String, Match[]> byStatus = new HashMap<>();
+            for (String cardStatus : cardStatuses) {
+                Match[] cells = new Match[4];
+                for (int cell = 0; cell < cells.length; cell++) {
+                    boolean creditUnused = (cell & 1) != 0;
+                    boolean cardExpired = (cell & 2) != 0;
+                    for (Rule rule : rules) {
+                        if (matches(rule.getRequestType(), requestType) && matches(rule.getCardStatus(), cardStatus)
+                                && matches(rule.getCreditUnused(), creditUnused) && matches(rule.getCardExpired(), cardExpired)) {
+                            cells[cell] = matches.get(rule);
+                            break;
+                        }
+                    }
+                }
+                byStatus.put(cardStatus, cells);
+            }
+            table.put(requestType, byStatus);
+        }
+        logger.info("Request decision table compiled from {} rules into {} cells (enabled={})",
+                rules.size(), requestTypes.size() * cardStatuses.size() * 4, enabled);
+    }
+
+    public Optional<Match> evaluate(String requestType, String cardStatus, boolean creditUnused, boolean cardExpired) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Map<String, Match[]> byStatus = table.getOrDefault(requestType, table.get(ANY));
+        Match[] cells = byStatus.getOrDefault(cardStatus, byStatus.get(ANY));
+        Match match = cells[(creditUnused ? 1 : 0) | (cardExpired ? 2 : 0)];
+        if (match == null) {
+            unmatched.increment();
+            return Optional.empty();
+        }
+        match.hits.increment();
+        return Optional.of(match);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // A wildcard key only matches rules that leave the fact unset
+    private static boolean matches(String ruleValue, String key) {
+        return ruleValue == null || ruleValue.equals(key);
+    }
+
+    private static boolean matches(Boolean ruleValue, boolean fact) {
+        return ruleValue == null || ruleValue == fact;
+    }
+
+    private static void validate(List<Rule> rules) {
+        Set<String> names = new HashSet<>();
+        for (Rule rule : rules) {
+            if (rule.getName() == null || rule.getName().isBlank()) {
+                throw new IllegalStateException("Every cms.rules.definitions entry needs a name");
+            }
+            if (!names.add(rule.getName())) {
+                throw new IllegalStateException("Duplicate rule name: " + rule.getName());
+            }
+            if (rule.getDecision() == null) {
+                throw new IllegalStateException("Rule " + rule.getName() + " has no decision");
+            }
+        }
+    }
+
+    public static final class Match {
+
+        private final String ruleName;
+        private final Decision decision;
+        private final Counter hits;
+
+        private Match(String ruleName, Decision decision, Counter hits) {
+            this.ruleName = ruleName;
+            this.decision = decision;
+            this.hits = hits;
+        }
+
+        public String getRuleName() {
+            return ruleName;
+        }
+
+        public boolean isApprove() {
+            return decision == Decision.APPROVE;
+        }
+    }
+}
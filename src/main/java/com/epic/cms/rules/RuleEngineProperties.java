@@ -0,0 +1,29 @@
+package com.epic.cms.rules;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "cms.rules")
+public class RuleEngineProperties {
+
+    public enum Decision { APPROVE, REJECT }
+
+    private boolean enabled = true;
+    private boolean evaluateOnCreate = true;
+    private int batchSize = 200;
+    private List<Rule> definitions = new ArrayList<>();     // first match wins
+
+    @Data
+    public static class Rule {
+        private String name;
+        private String requestType;     // ACTI / CDCL; unset matches any
+        private String cardStatus;      // IACT / CACT / DACT; unset matches any
+        private Boolean creditUnused;   // available credit equals the credit limit; unset matches either
+        private Boolean cardExpired;    // unset matches either
+        private Decision decision;
+    }
+}
@@ -0,0 +1,82 @@
+package com.epic.cms.service;
+
+import com.epic.cms.dto.AuthorizationRequestDto;
+import com.epic.cms.dto.AuthorizationResponseDto;
+import com.epic.cms.exception.ResourceNotFoundException;
+import com.epic.cms.ledger.CardLedger;
+import com.epic.cms.util.CardNumberResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Function;
+
+/**
+ * Authorization holds against a card's available limits. Deliberately not transactional: the
+ * ledger batches holds on its own writer and transaction, so a request thread holds no database
+ * connection while it waits for the batch to commit. Masked numbers and mask ids go
+ * through the resolver as everywhere else.
+ */
+@Service
+public class AuthorizationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthorizationService.class);
+
+    private final CardLedger ledger;
+    private final CardNumberResolver cardNumberResolver;
+    private final CardEncryptionService encryptionService;
+
+    public AuthorizationService(CardLedger ledger, CardNumberResolver cardNumberResolver,
+                                CardEncryptionService encryptionService) {
+        this.ledger = ledger;
+        this.cardNumberResolver = cardNumberResolver;
+        this.encryptionService = encryptionService;
+    }
+
+    public AuthorizationResponseDto authorize(String cardIdentifier, AuthorizationRequestDto dto) {
+        AuthorizationResponseDto result = onCard(cardIdentifier,
+                cardNumber -> ledger.authorize(cardNumber, dto.getAuthType(), dto.getAmount()));
+        if (CardLedger.DECLINED.equals(result.getStatus())) {
+            logger.info("authorize() - Declined {} {} on card {}: {}", dto.getAuthType(), dto.getAmount(), cardIdentifier, result.getDeclineReason());
+        } else {
+            logger.debug("authorize() - Held {} {} on card {} as {}", dto.getAuthType(), dto.getAmount(), cardIdentifier, result.getAuthorizationId());
+        }
+        return result;
+    }
+
+    public AuthorizationResponseDto capture(String cardIdentifier, String authorizationId) {
+        AuthorizationResponseDto result = onCard(cardIdentifier, cardNumber -> ledger.capture(cardNumber, authorizationId));
+        logger.debug("capture() - Captured authorization {} on card {}", authorizationId, cardIdentifier);
+        return result;
+    }
+
+    public AuthorizationResponseDto release(String cardIdentifier, String authorizationId) {
+        AuthorizationResponseDto result = onCard(cardIdentifier, cardNumber -> ledger.release(cardNumber, authorizationId));
+        logger.debug("release() - Released authorization {} on card {}", authorizationId, cardIdentifier);
+        return result;
+    }
+
+    // During a key rotation the card can be re-keyed between resolving its stored number and the
+    // ledger call, which then no longer finds it; resolving once more picks up the new number
+    private AuthorizationResponseDto onCard(String cardIdentifier, Function<String, AuthorizationResponseDto> action) {
+        try {
+            return action.apply(resolveCardNumber(cardIdentifier));
+        } catch (ResourceNotFoundException e) {
+            if (!encryptionService.hasRetiredKeys()) {
+                throw e;
+            }
+            return action.apply(resolveCardNumber(cardIdentifier));
+        }
+    }
+
+    private String resolveCardNumber(String cardIdentifier) {
+        String plainCardNumber = cardIdentifier;
+        if (!cardIdentifier.chars().allMatch(Character::isDigit)) {
+            plainCardNumber = cardNumberResolver.resolveCard(cardIdentifier)
+                    .orElseThrow(() -> new ResourceNotFoundException("Card not found: " + cardIdentifier))
+                    .getCardNumber();
+        }
+        return cardNumberResolver.findStoredCardNumber(plainCardNumber)
+                .orElseThrow(() -> new ResourceNotFoundException("Card not found: " + cardIdentifier));
+    }
+}
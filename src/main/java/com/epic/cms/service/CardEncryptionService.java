@@ -1,59 +1,117 @@
 package com.epic.cms.service;
 
+import com.epic.cms.config.CardKeyProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.Cipher;
 import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
+/**
+ * Deterministic card-number encryption under versioned keys.
+ * <p>
+ * Version 1 ciphertext is stored bare, as it always was; later versions are stored as
+ * {@code v<n>:<base64>} (base64 never contains a colon). New values are encrypted under the active
+ * version, any configured version can be decrypted, and {@link #encryptForLookup(String)} yields the
+ * ciphertext under every configured key so equality lookups keep working while
+ * {@code CardKeyRotationJob} moves rows to the active key.
+ */
 @Service
+@EnableConfigurationProperties(CardKeyProperties.class)
 public class CardEncryptionService {
 
     private static final Logger logger = LoggerFactory.getLogger(CardEncryptionService.class);
+    private static final int LEGACY_VERSION = 1;
 
-    @Value("${cms.security.encryption.key}")
-    private String secretKey;
+    private final String algorithm;
+    private final String transformation;
+    private final int activeVersion;
+    private final Map<Integer, SecretKeySpec> keys = new TreeMap<>();
 
-    @Value("${cms.security.encryption.algorithm:AES}")
-    private String algorithm;
+    public CardEncryptionService(CardKeyProperties cardKeys,
+                                 @Value("${cms.security.encryption.key}") String secretKey,
+                                 @Value("${cms.security.encryption.algorithm:AES}") String algorithm,
+                                 @Value("${cms.security.encryption.transformation:AES/ECB/PKCS5Padding}") String transformation) {
+        this.algorithm = algorithm;
+        this.transformation = transformation;
+        this.activeVersion = cardKeys.getActiveVersion();
 
-    @Value("${cms.security.encryption.transformation:AES/ECB/PKCS5Padding}")
-    private String transformation;
+        Map<Integer, String> configured = new TreeMap<>(cardKeys.getVersions());
+        configured.putIfAbsent(LEGACY_VERSION, secretKey);
+        configured.forEach((version, key) -> {
+            if (key == null || key.isBlank()) {
+                return;
+            }
+            int length = key.getBytes().length;
+            if (length != 16 && length != 24 && length != 32) {
+                throw new IllegalStateException("Card key version " + version + " must be 16, 24 or 32 bytes, got " + length);
+            }
+            keys.put(version, new SecretKeySpec(key.getBytes(), algorithm));
+        });
+        if (!keys.containsKey(activeVersion)) {
+            throw new IllegalStateException("No card key configured for active version " + activeVersion);
+        }
+        logger.info("Card encryption using key version {} of {}", activeVersion, keys.keySet());
+    }
 
     public String encrypt(String plainText) {
+        return encrypt(plainText, activeVersion);
+    }
+
+    /**
+     * The ciphertext of a plain number under every configured key, active version first. Stored rows
+     * not yet rotated match one of the others.
+     */
+    public List<String> encryptForLookup(String plainText) {
+        List<String> candidates = new ArrayList<>(keys.size());
+        candidates.add(encrypt(plainText, activeVersion));
+        for (Integer version : keys.keySet()) {
+            if (version != activeVersion) {
+                candidates.add(encrypt(plainText, version));
+            }
+        }
+        return candidates;
+    }
+
+    // More than one key means stored rows may be under a key other than the active one
+    public boolean hasRetiredKeys() {
+        return keys.size() > 1;
+    }
+
+    // What active-version ciphertext starts with; empty for version 1
+    public String getActivePrefix() {
+        return activeVersion == LEGACY_VERSION ? "" : "v" + activeVersion + ":";
+    }
+
+    public boolean isActiveVersion(String encryptedText) {
+        return versionOf(encryptedText) == activeVersion;
+    }
+
+    /**
+     * Re-encrypts stored ciphertext under the active key. Unlike {@link #decrypt(String)} this fails
+     * rather than passing through a value it cannot read, so a row is never rewritten with garbage.
+     */
+    public String reencrypt(String encryptedText) {
         try {
-            SecretKeySpec keySpec = new SecretKeySpec(secretKey.getBytes(), algorithm);
-            Cipher cipher = Cipher.getInstance(transformation);
-            cipher.init(Cipher.ENCRYPT_MODE, keySpec);
-            byte[] encryptedBytes = cipher.doFinal(plainText.getBytes());
-            return Base64.getEncoder().encodeToString(encryptedBytes);
-        } catch (Exception e) {
-            logger.error("Error encrypting card number", e);
-            throw new RuntimeException("Encryption failed", e);
+            return encrypt(new String(decryptBytes(encryptedText)), activeVersion);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Cannot re-encrypt card number under key version " + versionOf(encryptedText), e);
         }
     }
 
     public String decrypt(String encryptedText) {
         try {
             logger.debug("Attempting to decrypt with algorithm: {}, transformation: {}", algorithm, transformation);
-            SecretKeySpec keySpec = new SecretKeySpec(secretKey.getBytes(), algorithm);
-            Cipher cipher = Cipher.getInstance(transformation);
-            
-            // Check if transformation requires GCMParameterSpec (AES/GCM/...)
-            if (transformation.contains("/GCM/")) {
-                // If it's GCM, we'd need an IV. But the error "No GCMParameterSpec specified" 
-                // suggests it was trying GCM without it. 
-                // If we are forced to use ECB as per application.yaml, we should ensure the cipher matches.
-                logger.warn("GCM transformation detected but no GCMParameterSpec provided. Falling back to default init.");
-            }
-            
-            cipher.init(Cipher.DECRYPT_MODE, keySpec);
-            byte[] decodedBytes = Base64.getDecoder().decode(encryptedText);
-            byte[] decryptedBytes = cipher.doFinal(decodedBytes);
-            return new String(decryptedBytes);
+            return new String(decryptBytes(encryptedText));
         } catch (Exception e) {
             logger.error("Error decrypting card number: {}. Error: {}", encryptedText, e.getMessage());
             // If decryption fails, return original text instead of throwing exception to prevent 500 errors
@@ -61,4 +119,40 @@ public class CardEncryptionService {
             return encryptedText;
         }
     }
+
+    private String encrypt(String plainText, int version) {
+        try {
+            Cipher cipher = Cipher.getInstance(transformation);
+            cipher.init(Cipher.ENCRYPT_MODE, keys.get(version));
+            String encoded = Base64.getEncoder().encodeToString(cipher.doFinal(plainText.getBytes()));
+            return version == LEGACY_VERSION ? encoded : "v" + version + ":" + encoded;
+        } catch (Exception e) {
+            logger.error("Error encrypting card number", e);
+            throw new RuntimeException("Encryption failed", e);
+        }
+    }
+
+    private byte[] decryptBytes(String encryptedText) throws GeneralSecurityException {
+        int version = versionOf(encryptedText);
+        SecretKeySpec keySpec = keys.get(version);
+        if (keySpec == null) {
+            throw new IllegalStateException("No card key configured for version " + version);
+        }
+        Cipher cipher = Cipher.getInstance(transformation);
+        cipher.init(Cipher.DECRYPT_MODE, keySpec);
+        String encoded = version == LEGACY_VERSION ? encryptedText : encryptedText.substring(encryptedText.indexOf(':') + 1);
+        return cipher.doFinal(Base64.getDecoder().decode(encoded));
+    }
+
+    private static int versionOf(String encryptedText) {
+        int separator = encryptedText.indexOf(':');
+        if (separator < 2 || encryptedText.charAt(0) != 'v') {
+            return LEGACY_VERSION;
+        }
+        try {
+            return Integer.parseInt(encryptedText, 1, separator, 10);
+        } catch (NumberFormatException e) {
+            return LEGACY_VERSION;
+        }
+    }
 }
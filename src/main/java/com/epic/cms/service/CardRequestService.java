@@ -3,6 +3,7 @@ package com.epic.cms.service;
 import com.epic.cms.dto.ActionDto;
 import com.epic.cms.dto.CardRequestResponseDto;
 import com.epic.cms.dto.CreateCardRequestDto;
+import com.epic.cms.dto.KeysetPage;
 import com.epic.cms.dto.PageResponse;
 
 import java.util.List;
@@ -18,4 +19,12 @@ public interface CardRequestService {
     PageResponse<CardRequestResponseDto> getAllRequests(int page, int size);
 
     CardRequestResponseDto getRequestById(Long requestId);
+
+    KeysetPage<CardRequestResponseDto> getRequestsForCard(String cardIdentifier, String statusCode, String cursor, int size);
+
+    /**
+     * Runs the auto-decision rules over the next batch of pending requests after the given id.
+     * Returns the last request id examined, or null when there are no more.
+     */
+    Long autoDecidePending(Long afterRequestId, int limit);
 }
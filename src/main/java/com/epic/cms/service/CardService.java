@@ -1,19 +1,31 @@
 package com.epic.cms.service;
 
-import com.epic.cms.dto.CardResponseDto;
+import com.epic.cms.cache.SerializedCardResponse;
+import com.epic.cms.dto.CardField;
+import com.epic.cms.dto.CardHistoryDto;
+import com.epic.cms.dto.CardLookupResultDto;
+import com.epic.cms.dto.CardSearchCriteria;
 import com.epic.cms.dto.CreateCardDto;
+import com.epic.cms.dto.KeysetPage;
 import com.epic.cms.dto.PageResponse;
 import com.epic.cms.dto.UpdateCardDto;
 
 import java.util.List;
+import java.util.Set;
 
 public interface CardService {
 
-    List<CardResponseDto> getAllCards();
+    List<SerializedCardResponse> getAllCards();
 
-    PageResponse<CardResponseDto> getAllCards(int page, int size);
+    PageResponse<SerializedCardResponse> getAllCards(int page, int size, Set<CardField> fields);
 
-    CardResponseDto getByCardNumber(String cardNumber);
+    SerializedCardResponse getByCardNumber(String cardNumber);
+
+    List<CardLookupResultDto> lookupCards(List<String> identifiers);
+
+    KeysetPage<SerializedCardResponse> searchCards(CardSearchCriteria criteria, String cursor, int size);
+
+    KeysetPage<CardHistoryDto> getCardHistory(String cardIdentifier, String cursor, int size);
 
     void createCard(CreateCardDto dto);
 
@@ -17,6 +17,7 @@ import java.nio.ByteBuffer;
 import java.security.spec.KeySpec;
 import java.util.Base64;
 import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class PayloadDecryptionService {
@@ -34,6 +35,9 @@ public class PayloadDecryptionService {
     
     private final ObjectMapper objectMapper;
     
+    private volatile SecretKey aesKey;
+    private final ReentrantLock keyLock = new ReentrantLock();
+    
     public PayloadDecryptionService(ObjectMapper objectMapper) {
         this.objectMapper = objectMapper;
         logger.info("PayloadDecryptionService initialized");
@@ -60,13 +64,8 @@ public class PayloadDecryptionService {
             
             logger.debug("decrypt() - Extracted IV: {} bytes, ciphertext: {} bytes", iv.length, cipherText.length);
             
-            // 3. Derive Key (PBKDF2WithHmacSHA256, 100000 iterations, 256-bit key)
-            SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
-            KeySpec spec = new PBEKeySpec(secretKey.toCharArray(), salt.getBytes(), 100000, 256);
-            SecretKey tmp = factory.generateSecret(spec);
-            SecretKey aesKey = new SecretKeySpec(tmp.getEncoded(), "AES");
-            
-            logger.debug("decrypt() - Key derived successfully");
+            // 3. Derive Key (PBKDF2WithHmacSHA256, 100000 iterations, 256-bit key) - derived once and reused
+            SecretKey aesKey = derivedKey();
             
             // 4. Decrypt (Using transformation from config)
             Cipher cipher = Cipher.getInstance(transformation);
@@ -89,6 +88,29 @@ public class PayloadDecryptionService {
         }
     }
     
+    // Key and salt are fixed for the process lifetime, so the expensive PBKDF2 derivation runs only once
+    // instead of burning ~100k HMAC rounds of CPU on every write request.
+    private SecretKey derivedKey() throws Exception {
+        SecretKey key = aesKey;
+        if (key == null) {
+            keyLock.lock();
+            try {
+                key = aesKey;
+                if (key == null) {
+                    SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
+                    KeySpec spec = new PBEKeySpec(secretKey.toCharArray(), salt.getBytes(), 100000, 256);
+                    SecretKey tmp = factory.generateSecret(spec);
+                    key = new SecretKeySpec(tmp.getEncoded(), "AES");
+                    aesKey = key;
+                    logger.debug("derivedKey() - Key derived successfully");
+                }
+            } finally {
+                keyLock.unlock();
+            }
+        }
+        return key;
+    }
+    
     public <T> T decryptToObject(String encryptedPayload, Class<T> targetClass) throws Exception {
         String json = decrypt(encryptedPayload);
         return objectMapper.readValue(json, targetClass);
@@ -0,0 +1,147 @@
+package com.epic.cms.service;
+
+import com.epic.cms.dto.StatsResponseDto;
+import com.epic.cms.repository.StatusCounterRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Maintains the status_counter summary table. Update methods must be called inside the transaction
+ * that changes the counted rows, after the change itself; {@link #reconcile()} repairs any drift.
+ */
+@Service
+public class StatusCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatusCounterService.class);
+    private static final String CARD_PREFIX = "card:";
+    private static final String REQUEST_PREFIX = "request:";
+
+    private final StatusCounterRepository repository;
+    private final TransactionTemplate snapshotTransaction;
+    private final long reconcileLockTimeoutMs;
+
+    public StatusCounterService(StatusCounterRepository repository, PlatformTransactionManager transactionManager,
+                                @Value("${cms.stats.reconcile-lock-timeout-ms:2000}") long reconcileLockTimeoutMs) {
+        this.repository = repository;
+        // Not read-only: the recount must see the primary, never a lagging replica
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.reconcileLockTimeoutMs = reconcileLockTimeoutMs;
+    }
+
+    @Transactional
+    public void cardCreated(String statusCode) {
+        repository.applyDeltas(Map.of(cardKey(statusCode), 1L));
+    }
+
+    @Transactional
+    public void cardStatusChanged(String fromStatus, String toStatus) {
+        cardsStatusChanged(fromStatus, toStatus, 1);
+    }
+
+    @Transactional
+    public void cardsStatusChanged(String fromStatus, String toStatus, long count) {
+        if (!fromStatus.equals(toStatus) && count > 0) {
+            repository.applyDeltas(Map.of(cardKey(fromStatus), -count, cardKey(toStatus), count));
+        }
+    }
+
+    @Transactional
+    public void requestCreated(String requestReasonCode) {
+        repository.applyDeltas(Map.of(requestKey("PENDING", requestReasonCode), 1L));
+    }
+
+    @Transactional
+    public void requestProcessed(String requestReasonCode, String newStatus) {
+        repository.applyDeltas(Map.of(
+                requestKey("PENDING", requestReasonCode), -1L,
+                requestKey(newStatus, requestReasonCode), 1L));
+    }
+
+    @Transactional(readOnly = true)
+    public StatsResponseDto getStats() {
+        Map<String, Long> cardsByStatus = new TreeMap<>();
+        Map<String, Long> requestsByStatus = new TreeMap<>();
+        Map<String, Long> pendingRequestsByType = new TreeMap<>();
+
+        for (Map.Entry<String, Long> counter : repository.findAll().entrySet()) {
+            String key = counter.getKey();
+            if (key.startsWith(CARD_PREFIX)) {
+                cardsByStatus.merge(key.substring(CARD_PREFIX.length()), counter.getValue(), Long::sum);
+            } else if (key.startsWith(REQUEST_PREFIX)) {
+                String[] statusAndType = key.substring(REQUEST_PREFIX.length()).split(":", 2);
+                requestsByStatus.merge(statusAndType[0], counter.getValue(), Long::sum);
+                if ("PENDING".equals(statusAndType[0])) {
+                    pendingRequestsByType.merge(statusAndType[1], counter.getValue(), Long::sum);
+                }
+            }
+        }
+
+        StatsResponseDto stats = new StatsResponseDto();
+        stats.setCardsByStatus(cardsByStatus);
+        stats.setRequestsByStatus(requestsByStatus);
+        stats.setPendingRequestsByType(pendingRequestsByType);
+        stats.setTotalCards(cardsByStatus.values().stream().mapToLong(Long::longValue).sum());
+        stats.setTotalRequests(requestsByStatus.values().stream().mapToLong(Long::longValue).sum());
+        return stats;
+    }
+
+    /**
+     * Recounts the real tables and corrects the counters, returning the number of counters that had drifted.
+     * <p>
+     * Counters and counts are read from one REPEATABLE READ snapshot. Writers change a row and its
+     * counter in the same transaction, so the snapshot holds both or neither, and the difference is
+     * the drift at that point. It is added as a delta, which keeps counter updates committed since the
+     * snapshot, and no table lock is taken while the recount scans. An advisory lock, taken before
+     * the snapshot, keeps two reconciliations from applying the same drift twice.
+     */
+    @Transactional
+    public int reconcile() {
+        long startTime = System.currentTimeMillis();
+        repository.lockForReconciliation(reconcileLockTimeoutMs);
+        Map<String, Long> drift = snapshotTransaction.execute(status -> {
+            Map<String, Long> stored = repository.findAll();
+            Map<String, Long> actual = repository.countActual();
+
+            Set<String> keys = new HashSet<>(stored.keySet());
+            keys.addAll(actual.keySet());
+            Map<String, Long> differences = new HashMap<>();
+            for (String key : keys) {
+                long difference = actual.getOrDefault(key, 0L) - stored.getOrDefault(key, 0L);
+                if (difference != 0) {
+                    differences.put(key, difference);
+                }
+            }
+            return differences;
+        });
+
+        repository.applyDeltas(drift);
+        if (drift.isEmpty()) {
+            logger.debug("reconcile() - Counters consistent in {}ms", System.currentTimeMillis() - startTime);
+        } else {
+            logger.warn("reconcile() - Repaired counter drift {} in {}ms", drift, System.currentTimeMillis() - startTime);
+        }
+        return drift.size();
+    }
+
+    private static String cardKey(String statusCode) {
+        return CARD_PREFIX + statusCode;
+    }
+
+    private static String requestKey(String statusCode, String requestReasonCode) {
+        return REQUEST_PREFIX + statusCode + ":" + requestReasonCode;
+    }
+}
@@ -3,7 +3,10 @@ package com.epic.cms.service.impl;
 import com.epic.cms.dto.ActionDto;
 import com.epic.cms.dto.CardRequestResponseDto;
 import com.epic.cms.dto.CreateCardRequestDto;
+import com.epic.cms.dto.KeysetPage;
 import com.epic.cms.dto.PageResponse;
+import com.epic.cms.event.CardChangeEvent;
+import com.epic.cms.event.CardChangeEvent.ChangeType;
 import com.epic.cms.exception.BusinessException;
 import com.epic.cms.exception.ResourceNotFoundException;
 import com.epic.cms.mapper.DtoMapper;
@@ -11,16 +14,26 @@ import com.epic.cms.model.Card;
 import com.epic.cms.model.CardRequest;
 import com.epic.cms.repository.CardRepository;
 import com.epic.cms.repository.CardRequestRepository;
+import com.epic.cms.rules.RequestDecisionEngine;
 import com.epic.cms.service.CardEncryptionService;
 import com.epic.cms.service.CardRequestService;
+import com.epic.cms.service.StatusCounterService;
 import com.epic.cms.util.CardNumberResolver;
+import com.epic.cms.util.KeysetCursor;
+import com.epic.cms.util.ParallelQueryExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -32,18 +45,36 @@ public class CardRequestServiceImpl implements CardRequestService {
     private final DtoMapper dtoMapper;
     private final CardNumberResolver cardNumberResolver;
     private final CardEncryptionService encryptionService;
+    private final ParallelQueryExecutor parallelQueryExecutor;
+    private final StatusCounterService statusCounterService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RequestDecisionEngine decisionEngine;
+    private final boolean evaluateOnCreate;
+    private final int maxHistoryPageSize;
     private static final Logger logger = LoggerFactory.getLogger(CardRequestServiceImpl.class);
 
     public CardRequestServiceImpl(CardRequestRepository cardRequestRepository, 
                                 CardRepository cardRepository,
                                 DtoMapper dtoMapper,
                                 CardNumberResolver cardNumberResolver,
-                                CardEncryptionService encryptionService) {
+                                CardEncryptionService encryptionService,
+                                ParallelQueryExecutor parallelQueryExecutor,
+                                StatusCounterService statusCounterService,
+                                ApplicationEventPublisher eventPublisher,
+                                RequestDecisionEngine decisionEngine,
+                                @Value("${cms.rules.evaluate-on-create:true}") boolean evaluateOnCreate,
+                                @Value("${cms.cards.requests.max-page-size:100}") int maxHistoryPageSize) {
         this.cardRequestRepository = cardRequestRepository;
         this.cardRepository = cardRepository;
         this.dtoMapper = dtoMapper;
         this.cardNumberResolver = cardNumberResolver;
         this.encryptionService = encryptionService;
+        this.parallelQueryExecutor = parallelQueryExecutor;
+        this.statusCounterService = statusCounterService;
+        this.eventPublisher = eventPublisher;
+        this.decisionEngine = decisionEngine;
+        this.evaluateOnCreate = evaluateOnCreate;
+        this.maxHistoryPageSize = maxHistoryPageSize;
     }
 
     @Override
@@ -51,11 +82,11 @@ public class CardRequestServiceImpl implements CardRequestService {
         Optional<Card> cardOpt = cardNumberResolver.resolveCard(dto.getCardIdentifier());
         Card card = cardOpt.orElseThrow(() -> new ResourceNotFoundException("Card not found: " + dto.getCardIdentifier()));
 
-        String encryptedCardNumber = encryptionService.encrypt(card.getCardNumber());
+        String encryptedCardNumber = storedCardNumber(card);
         
         logger.info("createRequest() - Resolved card: {}, original identifier: {}", card.getCardNumber(), dto.getCardIdentifier());
 
-        List<CardRequest> existingPendingRequests = cardRequestRepository.findPendingRequestsByCardNumber(encryptedCardNumber);
+        List<CardRequest> existingPendingRequests = cardRequestRepository.findPendingRequestsByCardId(card.getCardId());
         
         boolean hasSameTypePending = existingPendingRequests.stream()
                 .anyMatch(req -> req.getRequestReasonCode().equals(dto.getRequestReasonCode()));
@@ -66,13 +97,12 @@ public class CardRequestServiceImpl implements CardRequestService {
                     " request for this card");
         }
 
-        if ("CDCL".equals(dto.getRequestReasonCode())) {
-            if (card.getAvailableCreditLimit().compareTo(card.getCreditLimit()) != 0) {
-                throw new BusinessException("Cannot close card: Available credit limit must equal credit limit");
-            }
+        if ("CDCL".equals(dto.getRequestReasonCode()) && !isCreditUnused(card)) {
+            throw new BusinessException("Cannot close card: Available credit limit must equal credit limit");
         }
 
         CardRequest cardRequest = CardRequest.builder()
+                .cardId(card.getCardId())
                 .cardNumber(encryptedCardNumber)
                 .requestReasonCode(dto.getRequestReasonCode())
                 .statusCode("PENDING")
@@ -80,56 +110,152 @@ public class CardRequestServiceImpl implements CardRequestService {
                 .build();
 
         cardRequestRepository.save(cardRequest);
+        statusCounterService.requestCreated(cardRequest.getRequestReasonCode());
+        eventPublisher.publishEvent(CardChangeEvent.forCard(ChangeType.REQUEST_CREATED, card.getCardId(), card.getCardNumber(), encryptedCardNumber)
+                .requestId(cardRequest.getRequestId())
+                .requestReasonCode(cardRequest.getRequestReasonCode())
+                .statusCode(cardRequest.getStatusCode())
+                .build());
 
         logger.info("Card request created: {} for card: {} with type: {}. Existing pending requests: {}", 
                    dto.getRequestReasonCode(), card.getCardNumber(), dto.getRequestReasonCode(), 
                    existingPendingRequests.size());
+
+        if (evaluateOnCreate) {
+            card.setCardNumber(encryptedCardNumber);
+            autoDecide(cardRequest, card);
+        }
     }
 
     @Override
     public void processRequest(Long requestId, ActionDto action) {
-        CardRequest request = cardRequestRepository.findById(requestId)
+        CardRequest request = cardRequestRepository.findByIdForUpdate(requestId)
                 .orElseThrow(() -> new ResourceNotFoundException("Request not found: " + requestId));
 
         if (!"PENDING".equals(request.getStatusCode())) {
             throw new BusinessException("Request is not PENDING: " + requestId);
         }
 
-        if (Boolean.TRUE.equals(action.getApprove())) {
-            Card card = cardRepository.findByCardNumber(request.getCardNumber())
-                    .orElseThrow(() -> new ResourceNotFoundException("Card not found: " + request.getCardNumber()));
+        boolean approve = Boolean.TRUE.equals(action.getApprove());
+        Card card = null;
+        if (approve) {
+            card = cardRepository.findById(request.getCardId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Card not found: " + request.getCardId()));
+            String blocker = approvalBlocker(request, card);
+            if (blocker != null) {
+                throw new BusinessException(blocker);
+            }
+        }
+        applyDecision(request, card, approve);
+    }
+
+    @Override
+    public Long autoDecidePending(Long afterRequestId, int limit) {
+        List<CardRequest> pending = cardRequestRepository.lockPendingAfter(afterRequestId, limit);
+        if (pending.isEmpty()) {
+            return null;
+        }
+        Map<Long, Card> cards = new HashMap<>();
+        List<Long> cardIds = pending.stream().map(CardRequest::getCardId).distinct().toList();
+        for (Card card : cardRepository.findByIds(cardIds)) {
+            cards.put(card.getCardId(), card);
+        }
+
+        int decided = 0;
+        for (CardRequest request : pending) {
+            Card card = cards.get(request.getCardId());
+            if (card != null && autoDecide(request, card)) {
+                decided++;
+            }
+        }
+        logger.info("autoDecidePending() - Decided {} of {} pending requests after id {}", decided, pending.size(), afterRequestId);
+        return pending.get(pending.size() - 1).getRequestId();
+    }
+
+    // Returns whether a rule decided the request; card must carry the encrypted number
+    private boolean autoDecide(CardRequest request, Card card) {
+        boolean cardExpired = card.getExpiryDate().isBefore(LocalDate.now());
+        Optional<RequestDecisionEngine.Match> match = decisionEngine.evaluate(request.getRequestReasonCode(),
+                card.getStatusCode(), isCreditUnused(card), cardExpired);
+        if (match.isEmpty()) {
+            return false;
+        }
+        boolean approve = match.get().isApprove();
+        String blocker = approve ? approvalBlocker(request, card) : null;
+        if (blocker != null) {
+            logger.warn("Rule {} would approve request {} but the state rules forbid it, leaving it for review: {}",
+                       match.get().getRuleName(), request.getRequestId(), blocker);
+            return false;
+        }
+        applyDecision(request, card, approve);
+        logger.info("Request {} auto-{} by rule {}", request.getRequestId(), approve ? "approved" : "rejected",
+                   match.get().getRuleName());
+        return true;
+    }
 
+    // The state rules an approval must satisfy, shared by manual and automatic decisions
+    private String approvalBlocker(CardRequest request, Card card) {
+        if ("ACTI".equals(request.getRequestReasonCode()) && !"IACT".equals(card.getStatusCode())) {
+            return "Cannot activate card: Card must be INACTIVE (IACT)";
+        }
+        if ("CDCL".equals(request.getRequestReasonCode()) && !"CACT".equals(card.getStatusCode())) {
+            return "Cannot close card: Card must be ACTIVE (CACT)";
+        }
+        return null;
+    }
+
+    // Caller has checked the request is PENDING and, for an approval, that approvalBlocker allows it
+    private void applyDecision(CardRequest request, Card card, boolean approve) {
+        if (approve) {
+            // A status change is a card edit, like the expiry sweep's: it moves the row version
             if ("ACTI".equals(request.getRequestReasonCode())) {
-                if (!"IACT".equals(card.getStatusCode())) {
-                    throw new BusinessException("Cannot activate card: Card must be INACTIVE (IACT)");
-                }
                 card.setStatusCode("CACT");
+                card.setLastUpdateTime(LocalDateTime.now());
                 cardRepository.update(card);
+                statusCounterService.cardStatusChanged("IACT", "CACT");
+                publishCardStatusChanged(request, "IACT", "CACT");
                 
             } else if ("CDCL".equals(request.getRequestReasonCode())) {
-                if (!"CACT".equals(card.getStatusCode())) {
-                    throw new BusinessException("Cannot close card: Card must be ACTIVE (CACT)");
-                }
                 card.setStatusCode("DACT");
+                card.setLastUpdateTime(LocalDateTime.now());
                 cardRepository.update(card);
+                statusCounterService.cardStatusChanged("CACT", "DACT");
+                publishCardStatusChanged(request, "CACT", "DACT");
             }
 
             request.setStatusCode("APPROVED");
             cardRequestRepository.update(request);
+            statusCounterService.requestProcessed(request.getRequestReasonCode(), "APPROVED");
+            publishRequestProcessed(request);
 
             logger.info("Request approved: {} for card: {} with type: {}", 
-                       requestId, request.getCardNumber(), request.getRequestReasonCode());
+                       request.getRequestId(), request.getCardNumber(), request.getRequestReasonCode());
 
         } else {
             request.setStatusCode("REJECTED");
             cardRequestRepository.update(request);
+            statusCounterService.requestProcessed(request.getRequestReasonCode(), "REJECTED");
+            publishRequestProcessed(request);
 
             logger.info("Request rejected: {} for card: {} with type: {}", 
-                       requestId, request.getCardNumber(), request.getRequestReasonCode());
+                       request.getRequestId(), request.getCardNumber(), request.getRequestReasonCode());
         }
     }
 
+    // Events carry the ciphertext the row is stored under, which during a key rotation need not be
+    // the active key's
+    private String storedCardNumber(Card resolvedCard) {
+        return cardNumberResolver.findStoredCardNumber(resolvedCard.getCardNumber())
+                .orElseThrow(() -> new ResourceNotFoundException("Card not found: " + resolvedCard.getMaskId()));
+    }
+
+    // The row carries every committed hold, so it is current
+    private boolean isCreditUnused(Card card) {
+        return card.getAvailableCreditLimit().compareTo(card.getCreditLimit()) == 0;
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public List<CardRequestResponseDto> getAllRequests() {
         List<CardRequest> requests = cardRequestRepository.findAll();
         decryptCardRequestNumbers(requests);
@@ -137,16 +263,24 @@ public class CardRequestServiceImpl implements CardRequestService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public PageResponse<CardRequestResponseDto> getAllRequests(int page, int size) {
         int offset = page * size;
-        List<CardRequest> requests = cardRequestRepository.findAllWithPagination(offset, size);
-        decryptCardRequestNumbers(requests);
-        long totalElements = cardRequestRepository.countAllRequests();
+        List<CardRequestResponseDto> content;
+        long totalElements;
+
+        try (ParallelQueryExecutor.Scope scope = parallelQueryExecutor.open()) {
+            ParallelQueryExecutor.Subtask<Long> count = scope.fork(cardRequestRepository::countAllRequests);
+            List<CardRequest> requests = cardRequestRepository.findAllWithPagination(offset, size);
+            decryptCardRequestNumbers(requests);
+            content = dtoMapper.toCardRequestResponseDtoList(requests);
+            totalElements = count.join();
+        }
         
         int totalPages = (int) Math.ceil((double) totalElements / size);
         
         return PageResponse.<CardRequestResponseDto>builder()
-                .content(dtoMapper.toCardRequestResponseDtoList(requests))
+                .content(content)
                 .pageNumber(page)
                 .pageSize(size)
                 .totalElements(totalElements)
@@ -157,6 +291,7 @@ public class CardRequestServiceImpl implements CardRequestService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CardRequestResponseDto getRequestById(Long requestId) {
         CardRequest request = cardRequestRepository.findById(requestId)
                 .orElseThrow(() -> new ResourceNotFoundException("Request not found: " + requestId));
@@ -165,6 +300,75 @@ public class CardRequestServiceImpl implements CardRequestService {
         return dtoMapper.toCardRequestResponseDto(request);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<CardRequestResponseDto> getRequestsForCard(String cardIdentifier, String statusCode,
+                                                                 String cursor, int size) {
+        if (size < 1 || size > maxHistoryPageSize) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + maxHistoryPageSize);
+        }
+        LocalDateTime beforeCreateTime = null;
+        Long beforeRequestId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] key = KeysetCursor.decode(cursor, 2);
+            try {
+                beforeCreateTime = LocalDateTime.parse(key[0]);
+                beforeRequestId = Long.valueOf(key[1]);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+            }
+        }
+
+        Card card = cardNumberResolver.resolveCard(cardIdentifier)
+                .orElseThrow(() -> new ResourceNotFoundException("Card not found: " + cardIdentifier));
+
+        List<CardRequest> requests = cardRequestRepository.findByCardIdBefore(
+                card.getCardId(), statusCode, beforeCreateTime, beforeRequestId, size + 1);
+        boolean hasMore = requests.size() > size;
+        if (hasMore) {
+            requests = requests.subList(0, size);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            CardRequest last = requests.get(requests.size() - 1);
+            nextCursor = KeysetCursor.encode(last.getCreateTime().toString(), last.getRequestId().toString());
+        }
+
+        // Every row belongs to the resolved card, so its plain number replaces per-row decryption
+        requests.forEach(request -> request.setCardNumber(card.getCardNumber()));
+
+        logger.info("getRequestsForCard() - Retrieved {} requests for card {}, hasMore={}",
+                   requests.size(), card.getCardNumber(), hasMore);
+        return KeysetPage.<CardRequestResponseDto>builder()
+                .content(dtoMapper.toCardRequestResponseDtoList(requests))
+                .pageSize(size)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private void publishCardStatusChanged(CardRequest request, String fromStatus, String toStatus) {
+        String plainCardNumber = encryptionService.decrypt(request.getCardNumber());
+        eventPublisher.publishEvent(CardChangeEvent.forCard(ChangeType.CARD_STATUS_CHANGED, request.getCardId(), plainCardNumber,
+                        request.getCardNumber())
+                .previousStatusCode(fromStatus)
+                .statusCode(toStatus)
+                .requestId(request.getRequestId())
+                .requestReasonCode(request.getRequestReasonCode())
+                .build());
+    }
+
+    private void publishRequestProcessed(CardRequest request) {
+        String plainCardNumber = encryptionService.decrypt(request.getCardNumber());
+        eventPublisher.publishEvent(CardChangeEvent.forCard(ChangeType.REQUEST_PROCESSED, request.getCardId(), plainCardNumber,
+                        request.getCardNumber())
+                .previousStatusCode("PENDING")
+                .statusCode(request.getStatusCode())
+                .requestId(request.getRequestId())
+                .requestReasonCode(request.getRequestReasonCode())
+                .build());
+    }
+
     private void decryptCardRequestNumbers(List<CardRequest> requests) {
         for (CardRequest request : requests) {
             try {
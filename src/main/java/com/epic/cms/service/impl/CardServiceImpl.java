@@ -1,23 +1,48 @@
 package com.epic.cms.service.impl;
 
-import com.epic.cms.dto.CardResponseDto;
+import com.epic.cms.cache.CardResponseCache;
+import com.epic.cms.cache.SerializedCardResponse;
+import com.epic.cms.dto.CardField;
+import com.epic.cms.dto.CardHistoryDto;
+import com.epic.cms.dto.CardLookupResultDto;
+import com.epic.cms.dto.CardSearchCriteria;
 import com.epic.cms.dto.CreateCardDto;
+import com.epic.cms.dto.KeysetPage;
 import com.epic.cms.dto.PageResponse;
 import com.epic.cms.dto.UpdateCardDto;
+import com.epic.cms.event.CardChangeEvent;
+import com.epic.cms.event.CardChangeEvent.ChangeType;
+import com.epic.cms.exception.BusinessException;
 import com.epic.cms.exception.ResourceNotFoundException;
+import com.epic.cms.ledger.CardLedger;
 import com.epic.cms.mapper.DtoMapper;
 import com.epic.cms.model.Card;
+import com.epic.cms.model.CardHistory;
+import com.epic.cms.repository.CardHistoryRepository;
 import com.epic.cms.repository.CardRepository;
 import com.epic.cms.service.CardService;
 import com.epic.cms.service.CardEncryptionService;
+import com.epic.cms.service.StatusCounterService;
+import com.epic.cms.util.CardNumberResolver;
+import com.epic.cms.util.CardNumberUtils;
+import com.epic.cms.util.KeysetCursor;
+import com.epic.cms.util.ParallelQueryExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -27,17 +52,44 @@ public class CardServiceImpl implements CardService {
     private final CardRepository repository;
     private final DtoMapper dtoMapper;
     private final CardEncryptionService encryptionService;
+    private final ParallelQueryExecutor parallelQueryExecutor;
+    private final CardNumberResolver cardNumberResolver;
+    private final StatusCounterService statusCounterService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CardHistoryRepository historyRepository;
+    private final CardLedger ledger;
+    private final CardResponseCache responseCache;
+    private final int maxHistoryPageSize;
+    private final int maxLookupIdentifiers;
+    private final int maxSearchPageSize;
     private static final Logger logger = LoggerFactory.getLogger(CardServiceImpl.class);
 
-    public CardServiceImpl(CardRepository repository, DtoMapper dtoMapper, CardEncryptionService encryptionService) {
+    public CardServiceImpl(CardRepository repository, DtoMapper dtoMapper, CardEncryptionService encryptionService,
+                           ParallelQueryExecutor parallelQueryExecutor, CardNumberResolver cardNumberResolver,
+                           StatusCounterService statusCounterService, ApplicationEventPublisher eventPublisher,
+                           CardHistoryRepository historyRepository, CardLedger ledger, CardResponseCache responseCache,
+                           @Value("${cms.cards.lookup.max-identifiers:500}") int maxLookupIdentifiers,
+                           @Value("${cms.cards.search.max-page-size:100}") int maxSearchPageSize,
+                           @Value("${cms.cards.history.max-page-size:100}") int maxHistoryPageSize) {
         this.repository = repository;
         this.dtoMapper = dtoMapper;
         this.encryptionService = encryptionService;
+        this.parallelQueryExecutor = parallelQueryExecutor;
+        this.cardNumberResolver = cardNumberResolver;
+        this.statusCounterService = statusCounterService;
+        this.eventPublisher = eventPublisher;
+        this.historyRepository = historyRepository;
+        this.ledger = ledger;
+        this.responseCache = responseCache;
+        this.maxHistoryPageSize = maxHistoryPageSize;
+        this.maxLookupIdentifiers = maxLookupIdentifiers;
+        this.maxSearchPageSize = maxSearchPageSize;
         logger.info("CardServiceImpl initialized");
     }
 
     @Override
-    public List<CardResponseDto> getAllCards() {
+    @Transactional(readOnly = true)
+    public List<SerializedCardResponse> getAllCards() {
         String operationId = UUID.randomUUID().toString();
         MDC.put("operationId", operationId);
         
@@ -46,8 +98,7 @@ public class CardServiceImpl implements CardService {
         
         try {
             List<Card> cards = repository.findAll();
-            decryptCardNumbers(cards);
-            List<CardResponseDto> result = dtoMapper.toCardResponseDtoList(cards);
+            List<SerializedCardResponse> result = toCachedResponses(cards);
             long duration = System.currentTimeMillis() - startTime;
             
             logger.debug("getAllCards() - Retrieved {} cards in {}ms", cards.size(), duration);
@@ -62,7 +113,8 @@ public class CardServiceImpl implements CardService {
     }
 
     @Override
-    public PageResponse<CardResponseDto> getAllCards(int page, int size) {
+    @Transactional(readOnly = true)
+    public PageResponse<SerializedCardResponse> getAllCards(int page, int size, Set<CardField> fields) {
         String operationId = UUID.randomUUID().toString();
         MDC.put("operationId", operationId);
         
@@ -71,14 +123,30 @@ public class CardServiceImpl implements CardService {
         
         try {
             int offset = page * size;
-            List<Card> cards = repository.findAllWithPagination(offset, size);
-            decryptCardNumbers(cards);
-            long totalElements = repository.countAllCards();
+            List<SerializedCardResponse> content;
+            long totalElements;
+            
+            // Count runs on its own connection while the page is fetched, decrypted and mapped here
+            try (ParallelQueryExecutor.Scope scope = parallelQueryExecutor.open()) {
+                ParallelQueryExecutor.Subtask<Long> count = scope.fork(repository::countAllCards);
+                List<Card> cards = repository.findAllWithPagination(offset, size, CardField.columns(fields));
+                if (fields.equals(CardField.ALL)) {
+                    content = toCachedResponses(cards);
+                } else {
+                    if (CardField.needsCardNumber(fields)) {
+                        decryptCardNumbers(cards);
+                    }
+                    content = dtoMapper.toCardResponseDtoList(cards, fields).stream()
+                            .map(SerializedCardResponse::of)
+                            .toList();
+                }
+                totalElements = count.join();
+            }
             
             int totalPages = (int) Math.ceil((double) totalElements / size);
             
-            PageResponse<CardResponseDto> result = PageResponse.<CardResponseDto>builder()
-                    .content(dtoMapper.toCardResponseDtoList(cards))
+            PageResponse<SerializedCardResponse> result = PageResponse.<SerializedCardResponse>builder()
+                    .content(content)
                     .pageNumber(page)
                     .pageSize(size)
                     .totalElements(totalElements)
@@ -103,7 +171,8 @@ public class CardServiceImpl implements CardService {
     }
 
     @Override
-    public CardResponseDto getByCardNumber(String cardNumber) {
+    @Transactional(readOnly = true)
+    public SerializedCardResponse getByCardNumber(String cardNumber) {
         String operationId = UUID.randomUUID().toString();
         MDC.put("operationId", operationId);
         
@@ -111,13 +180,13 @@ public class CardServiceImpl implements CardService {
         long startTime = System.currentTimeMillis();
         
         try {
-            String encryptedCardNumber = encryptionService.encrypt(cardNumber);
-            Card card = repository.findByCardNumber(encryptedCardNumber)
+            Card card = repository.findByAnyCardNumber(encryptionService.encryptForLookup(cardNumber))
                     .orElseThrow(() -> new ResourceNotFoundException("Card not found: " + cardNumber));
             
-            card.setCardNumber(encryptionService.decrypt(card.getCardNumber()));
-            
-            CardResponseDto result = dtoMapper.toCardResponseDto(card);
+            SerializedCardResponse result = responseCache.get(card, () -> {
+                card.setCardNumber(encryptionService.decrypt(card.getCardNumber()));
+                return dtoMapper.toCardResponseDto(card);
+            });
             long duration = System.currentTimeMillis() - startTime;
             
             logger.debug("getByCardNumber(cardNumber={}) - Retrieved card {} (status: {}) in {}ms", 
@@ -135,6 +204,167 @@ public class CardServiceImpl implements CardService {
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<CardLookupResultDto> lookupCards(List<String> identifiers) {
+        if (identifiers == null || identifiers.isEmpty()) {
+            throw new IllegalArgumentException("At least one card identifier is required");
+        }
+        if (identifiers.size() > maxLookupIdentifiers) {
+            throw new IllegalArgumentException("At most " + maxLookupIdentifiers + " card identifiers can be looked up at once");
+        }
+        
+        String operationId = UUID.randomUUID().toString();
+        MDC.put("operationId", operationId);
+        
+        logger.debug("lookupCards(count={}) - Starting operation", identifiers.size());
+        long startTime = System.currentTimeMillis();
+        
+        try {
+            Map<String, Card> resolved = cardNumberResolver.resolveCards(identifiers);
+            
+            List<CardLookupResultDto> result = new ArrayList<>(identifiers.size());
+            for (String identifier : identifiers) {
+                Card card = identifier == null ? null : resolved.get(identifier.trim());
+                result.add(new CardLookupResultDto(identifier, card != null, dtoMapper.toCardResponseDto(card)));
+            }
+            long duration = System.currentTimeMillis() - startTime;
+            
+            logger.info("lookupCards(count={}) - Resolved {} distinct cards in {}ms", 
+                       identifiers.size(), resolved.size(), duration);
+            return result;
+        } catch (Exception e) {
+            logger.error("lookupCards(count={}) - Error looking up cards: {}", identifiers.size(), e.getMessage(), e);
+            throw e;
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<SerializedCardResponse> searchCards(CardSearchCriteria criteria, String cursor, int size) {
+        if (size < 1 || size > maxSearchPageSize) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + maxSearchPageSize);
+        }
+        if (criteria.getExpiryAfter() != null && criteria.getExpiryBefore() != null
+                && criteria.getExpiryAfter().isAfter(criteria.getExpiryBefore())) {
+            throw new IllegalArgumentException("expiryAfter must not be later than expiryBefore");
+        }
+        if (criteria.getMinCreditLimit() != null && criteria.getMaxCreditLimit() != null
+                && criteria.getMinCreditLimit().compareTo(criteria.getMaxCreditLimit()) > 0) {
+            throw new IllegalArgumentException("minCreditLimit must not exceed maxCreditLimit");
+        }
+        Long afterCardId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                afterCardId = Long.valueOf(KeysetCursor.decode(cursor, 1)[0]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+            }
+        }
+        
+        String operationId = UUID.randomUUID().toString();
+        MDC.put("operationId", operationId);
+        
+        logger.debug("searchCards(criteria={}, size={}) - Starting operation", criteria, size);
+        long startTime = System.currentTimeMillis();
+        
+        try {
+            // One extra row tells whether another page exists without a count query
+            List<Card> cards = repository.search(criteria, afterCardId, size + 1);
+            boolean hasMore = cards.size() > size;
+            if (hasMore) {
+                cards = cards.subList(0, size);
+            }
+            // Keyed by card_id: stable across key rotation, and carries no ciphertext to the client
+            String nextCursor = hasMore ? KeysetCursor.encode(cards.get(cards.size() - 1).getCardId().toString()) : null;
+            
+            KeysetPage<SerializedCardResponse> result = KeysetPage.<SerializedCardResponse>builder()
+                    .content(toCachedResponses(cards))
+                    .pageSize(size)
+                    .nextCursor(nextCursor)
+                    .hasMore(hasMore)
+                    .build();
+            
+            long duration = System.currentTimeMillis() - startTime;
+            logger.info("searchCards(criteria={}, size={}) - Retrieved {} cards in {}ms, hasMore={}", 
+                       criteria, size, cards.size(), duration, hasMore);
+            return result;
+        } catch (Exception e) {
+            logger.error("searchCards(criteria={}, size={}) - Error searching cards: {}", criteria, size, e.getMessage(), e);
+            throw e;
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<CardHistoryDto> getCardHistory(String cardIdentifier, String cursor, int size) {
+        if (size < 1 || size > maxHistoryPageSize) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + maxHistoryPageSize);
+        }
+        LocalDateTime beforeChangedAt = null;
+        Long beforeHistoryId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] key = KeysetCursor.decode(cursor, 2);
+            try {
+                beforeChangedAt = LocalDateTime.parse(key[0]);
+                beforeHistoryId = Long.valueOf(key[1]);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+            }
+        }
+        
+        String operationId = UUID.randomUUID().toString();
+        MDC.put("operationId", operationId);
+        
+        try {
+            Card card = cardNumberResolver.resolveCard(cardIdentifier)
+                    .orElseThrow(() -> new ResourceNotFoundException("Card not found: " + cardIdentifier));
+            
+            List<CardHistory> entries = historyRepository.findByCardIdBefore(
+                    card.getCardId(), beforeChangedAt, beforeHistoryId, size + 1);
+            boolean hasMore = entries.size() > size;
+            if (hasMore) {
+                entries = entries.subList(0, size);
+            }
+            String nextCursor = null;
+            if (hasMore) {
+                CardHistory last = entries.get(entries.size() - 1);
+                nextCursor = KeysetCursor.encode(last.getChangedAt().toString(), last.getHistoryId().toString());
+            }
+            
+            List<CardHistoryDto> content = new ArrayList<>(entries.size());
+            for (CardHistory entry : entries) {
+                CardHistoryDto dto = new CardHistoryDto();
+                dto.setHistoryId(entry.getHistoryId());
+                dto.setChangeType(entry.getChangeType());
+                dto.setChanges(entry.getChanges());
+                dto.setChangedAt(entry.getChangedAt());
+                content.add(dto);
+            }
+            
+            logger.info("getCardHistory(cardNumber={}) - Retrieved {} history entries, hasMore={}", 
+                       card.getCardNumber(), content.size(), hasMore);
+            return KeysetPage.<CardHistoryDto>builder()
+                    .content(content)
+                    .pageSize(size)
+                    .nextCursor(nextCursor)
+                    .hasMore(hasMore)
+                    .build();
+        } catch (ResourceNotFoundException e) {
+            logger.warn("getCardHistory(cardIdentifier={}) - Card not found", cardIdentifier);
+            throw e;
+        } catch (Exception e) {
+            logger.error("getCardHistory(cardIdentifier={}) - Error retrieving history: {}", cardIdentifier, e.getMessage(), e);
+            throw e;
+        } finally {
+            MDC.clear();
+        }
+    }
+
     @Override
     public void createCard(CreateCardDto dto) {
         String operationId = UUID.randomUUID().toString();
@@ -148,7 +378,8 @@ public class CardServiceImpl implements CardService {
         try {
             String encryptedCardNumber = encryptionService.encrypt(dto.getCardNumber());
             
-            if (repository.findByCardNumber(encryptedCardNumber).isPresent()) {
+            // The number may already be stored under a key that has not been rotated out yet
+            if (repository.findByAnyCardNumber(encryptionService.encryptForLookup(dto.getCardNumber())).isPresent()) {
                 logger.warn("createCard(cardNumber={}) - Card already exists", dto.getCardNumber());
                 throw new IllegalArgumentException("Card with number " + dto.getCardNumber() + " already exists");
             }
@@ -162,9 +393,18 @@ public class CardServiceImpl implements CardService {
                     .availableCreditLimit(dto.getCreditLimit())
                     .availableCashLimit(dto.getCashLimit())
                     .lastUpdateTime(LocalDateTime.now())
+                    .maskId(CardNumberUtils.generateMaskId(dto.getCardNumber()))
+                    .cardNumberEnds(CardNumberUtils.cardNumberEnds(dto.getCardNumber()))
                     .build();
 
             repository.save(card);
+            statusCounterService.cardCreated(card.getStatusCode());
+            eventPublisher.publishEvent(CardChangeEvent.forCard(ChangeType.CARD_CREATED, card.getCardId(), dto.getCardNumber(), encryptedCardNumber)
+                    .statusCode(card.getStatusCode())
+                    .expiryDate(card.getExpiryDate())
+                    .creditLimit(card.getCreditLimit())
+                    .cashLimit(card.getCashLimit())
+                    .build());
             long duration = System.currentTimeMillis() - startTime;
 
             logger.info("createCard(cardNumber={}) - Card created successfully in {}ms", dto.getCardNumber(), duration);
@@ -192,26 +432,33 @@ public class CardServiceImpl implements CardService {
         long startTime = System.currentTimeMillis();
 
         try {
-            String encryptedCardNumber = encryptionService.encrypt(cardNumber);
-            
-            Card existingCard = repository.findByCardNumber(encryptedCardNumber)
+            Card existingCard = repository.findByAnyCardNumber(encryptionService.encryptForLookup(cardNumber))
                     .orElseThrow(() -> new ResourceNotFoundException("Card not found: " + cardNumber));
+            // The row's ciphertext, which may be under a key being rotated out
+            String encryptedCardNumber = existingCard.getCardNumber();
 
             logger.debug("updateCard(cardNumber={}) - Current card status: {}", cardNumber, existingCard.getStatusCode());
             
-            String oldExpiryDate = existingCard.getExpiryDate().toString();
-            String oldCreditLimit = existingCard.getCreditLimit().toString();
-            String oldCashLimit = existingCard.getCashLimit().toString();
+            LocalDate oldExpiryDate = existingCard.getExpiryDate();
+            BigDecimal oldCreditLimit = existingCard.getCreditLimit();
+            BigDecimal oldCashLimit = existingCard.getCashLimit();
 
             existingCard.setExpiryDate(dto.getExpiryDate());
-            existingCard.setCardNumber(encryptedCardNumber);
             existingCard.setCreditLimit(dto.getCreditLimit());
             existingCard.setCashLimit(dto.getCashLimit());
-            existingCard.setAvailableCreditLimit(dto.getCreditLimit());
-            existingCard.setAvailableCashLimit(dto.getCashLimit());
             existingCard.setLastUpdateTime(LocalDateTime.now());
 
-            repository.update(existingCard);
+            // Available limits move with the limits; outstanding holds cannot be pushed below zero
+            ledger.updateCard(existingCard);
+            eventPublisher.publishEvent(CardChangeEvent.forCard(ChangeType.CARD_UPDATED, existingCard.getCardId(), cardNumber, encryptedCardNumber)
+                    .statusCode(existingCard.getStatusCode())
+                    .expiryDate(existingCard.getExpiryDate())
+                    .previousExpiryDate(oldExpiryDate)
+                    .creditLimit(existingCard.getCreditLimit())
+                    .cashLimit(existingCard.getCashLimit())
+                    .previousCreditLimit(oldCreditLimit)
+                    .previousCashLimit(oldCashLimit)
+                    .build());
             long duration = System.currentTimeMillis() - startTime;
 
             logger.info("updateCard(cardNumber={}) - Card updated successfully in {}ms", cardNumber, duration);
@@ -222,6 +469,9 @@ public class CardServiceImpl implements CardService {
         } catch (ResourceNotFoundException e) {
             logger.warn("updateCard(cardNumber={}) - Card not found for update: {}", cardNumber, e.getMessage());
             throw e;
+        } catch (BusinessException e) {
+            logger.warn("updateCard(cardNumber={}) - Update rejected: {}", cardNumber, e.getMessage());
+            throw e;
         } catch (Exception e) {
             logger.error("updateCard(cardNumber={}) - Error updating card: {}", cardNumber, e.getMessage(), e);
             throw e;
@@ -230,13 +480,27 @@ public class CardServiceImpl implements CardService {
         }
     }
 
-    private void decryptCardNumbers(List<Card> cards) {
+    // Full responses of cards still carrying their ciphertext; only cache misses are decrypted and mapped
+    private List<SerializedCardResponse> toCachedResponses(List<Card> cards) {
+        List<SerializedCardResponse> responses = new ArrayList<>(cards.size());
         for (Card card : cards) {
-            try {
-                card.setCardNumber(encryptionService.decrypt(card.getCardNumber()));
-            } catch (Exception e) {
-                logger.error("Error decrypting card number: {}", card.getCardNumber(), e);
-            }
+            responses.add(responseCache.get(card, () -> {
+                decryptCardNumber(card);
+                return dtoMapper.toCardResponseDto(card);
+            }));
+        }
+        return responses;
+    }
+
+    private void decryptCardNumbers(List<Card> cards) {
+        cards.forEach(this::decryptCardNumber);
+    }
+
+    private void decryptCardNumber(Card card) {
+        try {
+            card.setCardNumber(encryptionService.decrypt(card.getCardNumber()));
+        } catch (Exception e) {
+            logger.error("Error decrypting card number: {}", card.getCardNumber(), e);
         }
     }
 }
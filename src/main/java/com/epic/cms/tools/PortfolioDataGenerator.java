@@ -0,0 +1,272 @@
+package com.epic.cms.tools;
+
+import com.epic.cms.job.CardRequestPartitionManager;
+import com.epic.cms.service.CardEncryptionService;
+import com.epic.cms.service.StatusCounterService;
+import com.epic.cms.util.CardNumberUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates a synthetic card portfolio for scalability testing.
+ * <p>
+ * Run with {@code --spring.profiles.active=datagen --cms.datagen.cards=1000000 --cms.datagen.requests=2000000}.
+ * Every row is derived only from (seed, row index), so the same seed produces the same data
+ * regardless of thread count or batch size.
+ */
+@Component
+@Profile("datagen")
+public class PortfolioDataGenerator implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioDataGenerator.class);
+
+    // BIN prefix, total card length, relative weight (roughly a Visa/Mastercard heavy portfolio)
+    private static final String[] BINS = {"411111", "422222", "453201", "476173", "510510", "524242", "555555", "222300", "378282", "341111", "601100"};
+    private static final int[] BIN_LENGTHS = {16, 16, 16, 16, 16, 16, 16, 16, 15, 15, 16};
+    private static final int[] BIN_WEIGHTS = {20, 15, 10, 10, 12, 10, 8, 5, 4, 3, 3};
+    private static final int TOTAL_BIN_WEIGHT = Arrays.stream(BIN_WEIGHTS).sum();
+
+    // Multiplier coprime with 10 makes index -> account number a bijection, so numbers never collide
+    private static final long ACCOUNT_MULTIPLIER = 2_654_435_761L;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private static final String INSERT_CARD_SQL = """
+        INSERT INTO card
+        (card_number, expiry_date, status_code,
+         credit_limit, cash_limit,
+         available_credit_limit, available_cash_limit,
+         last_update_time, mask_id, card_number_ends)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+    """;
+
+    // card_id is assigned by the card load, so requests find it through the card number
+    private static final String INSERT_REQUEST_SQL = """
+        INSERT INTO card_request
+        (card_id, request_reason_code, status_code, create_time)
+        SELECT card_id, ?, ?, ? FROM card WHERE card_number = ?
+    """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CardEncryptionService encryptionService;
+    private final StatusCounterService statusCounterService;
+    private final CardRequestPartitionManager partitionManager;
+
+    @Value("${cms.datagen.cards:100000}")
+    private long cardCount;
+
+    @Value("${cms.datagen.requests:200000}")
+    private long requestCount;
+
+    @Value("${cms.datagen.seed:42}")
+    private long seed;
+
+    @Value("${cms.datagen.threads:8}")
+    private int threads;
+
+    @Value("${cms.datagen.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${cms.datagen.truncate:false}")
+    private boolean truncate;
+
+    // Dates are relative to this day; pin it (yyyy-MM-dd) to reproduce a run exactly on a later day
+    @Value("${cms.datagen.reference-date:#{null}}")
+    private LocalDate referenceDate;
+
+    private LocalDateTime referenceTime;
+    private long historyMinutes;
+
+    public PortfolioDataGenerator(JdbcTemplate jdbcTemplate, CardEncryptionService encryptionService,
+                                  StatusCounterService statusCounterService, CardRequestPartitionManager partitionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.encryptionService = encryptionService;
+        this.statusCounterService = statusCounterService;
+        this.partitionManager = partitionManager;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (cardCount <= 0) {
+            throw new IllegalArgumentException("cms.datagen.cards must be positive: " + cardCount);
+        }
+        referenceTime = (referenceDate != null ? referenceDate : LocalDate.now()).atStartOfDay();
+        logger.info("Generating {} cards and {} card requests (seed={}, referenceDate={}, threads={}, batchSize={})",
+                cardCount, requestCount, seed, referenceTime.toLocalDate(), threads, batchSize);
+        long startTime = System.currentTimeMillis();
+
+        if (truncate) {
+            jdbcTemplate.execute("TRUNCATE TABLE card_authorization, card_history, card_request, card RESTART IDENTITY");
+            logger.info("Existing cards and card requests truncated");
+        }
+        // Request history stays inside the archive window (see requestRow), so the first partition
+        // maintenance run does not archive what was just generated; every month needs its partition.
+        // Pending requests reach 30 days back, so the window covers at least the previous month.
+        YearMonth referenceMonth = YearMonth.from(referenceTime);
+        YearMonth firstMonth = referenceMonth.minusMonths(Math.max(1, partitionManager.getArchiveAfterMonths()));
+        historyMinutes = Duration.between(firstMonth.atDay(1).atStartOfDay(), referenceTime).toMinutes();
+        partitionManager.ensurePartitions(firstMonth, referenceMonth);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            load(executor, "card", cardCount, INSERT_CARD_SQL, this::cardRow);
+            load(executor, "card_request", requestCount, INSERT_REQUEST_SQL, this::requestRow);
+        } finally {
+            executor.shutdown();
+        }
+        // Bulk inserts bypass the incremental counters
+        statusCounterService.reconcile();
+
+        logger.info("Data generation completed in {}ms", System.currentTimeMillis() - startTime);
+    }
+
+    private void load(ExecutorService executor, String table, long total, String sql,
+                      RowFactory rowFactory) throws Exception {
+        AtomicLong inserted = new AtomicLong();
+        List<Future<?>> batches = new ArrayList<>();
+        long startTime = System.currentTimeMillis();
+
+        for (long from = 0; from < total; from += batchSize) {
+            long batchStart = from;
+            long batchEnd = Math.min(total, from + batchSize);
+            batches.add(executor.submit(() -> {
+                List<Object[]> rows = new ArrayList<>((int) (batchEnd - batchStart));
+                for (long index = batchStart; index < batchEnd; index++) {
+                    rows.add(rowFactory.row(index));
+                }
+                jdbcTemplate.batchUpdate(sql, rows);
+                long done = inserted.addAndGet(rows.size());
+                logger.debug("{}: {}/{} rows inserted", table, done, total);
+            }));
+        }
+        for (Future<?> batch : batches) {
+            batch.get();
+        }
+
+        logger.info("{}: inserted {} rows in {}ms", table, inserted.get(), System.currentTimeMillis() - startTime);
+    }
+
+    private Object[] cardRow(long index) {
+        SplittableRandom random = randomFor(1, index);
+        String cardNumber = cardNumber(index, random);
+
+        int statusRoll = random.nextInt(100);
+        String status = statusRoll < 70 ? "CACT" : statusRoll < 90 ? "IACT" : "DACT";
+
+        // Log-uniform credit limit between 50k and 2M, rounded to 10k; cash limit 30-50% of credit
+        double logLimit = Math.log(50_000) + random.nextDouble() * (Math.log(2_000_000) - Math.log(50_000));
+        long creditLimit = Math.round(Math.exp(logLimit) / 10_000) * 10_000;
+        long cashLimit = Math.round(creditLimit * (0.3 + random.nextDouble() * 0.2) / 1_000) * 1_000;
+
+        long availableCredit = creditLimit;
+        long availableCash = cashLimit;
+        if ("CACT".equals(status)) {
+            availableCredit = creditLimit - Math.round(creditLimit * random.nextDouble() * 0.9);
+            availableCash = Math.min(availableCredit, cashLimit - Math.round(cashLimit * random.nextDouble() * 0.5));
+        }
+
+        LocalDate expiryDate = referenceTime.toLocalDate()
+                .plusMonths(random.nextInt(-6, 61))
+                .withDayOfMonth(1).plusMonths(1).minusDays(1);
+        LocalDateTime lastUpdateTime = referenceTime.minusMinutes(random.nextLong(2L * 365 * 24 * 60));
+
+        return new Object[]{
+                encryptionService.encrypt(cardNumber),
+                Date.valueOf(expiryDate),
+                status,
+                BigDecimal.valueOf(creditLimit),
+                BigDecimal.valueOf(cashLimit),
+                BigDecimal.valueOf(availableCredit),
+                BigDecimal.valueOf(availableCash),
+                Timestamp.valueOf(lastUpdateTime),
+                CardNumberUtils.generateMaskId(cardNumber),
+                CardNumberUtils.cardNumberEnds(cardNumber)
+        };
+    }
+
+    private Object[] requestRow(long index) {
+        SplittableRandom random = randomFor(2, index);
+
+        int statusRoll = random.nextInt(100);
+        String status = statusRoll < 75 ? "APPROVED" : statusRoll < 90 ? "REJECTED" : "PENDING";
+        // Each card has one pending slot per type; once they are used up, pending rolls become history
+        if ("PENDING".equals(status) && index >= 2 * cardCount) {
+            status = "REJECTED";
+        }
+
+        long cardIndex;
+        String reasonCode;
+        LocalDateTime createTime;
+        if ("PENDING".equals(status)) {
+            // At most one pending request per (card, type), matching what createRequest allows
+            cardIndex = index % cardCount;
+            reasonCode = (index / cardCount) % 2 == 0 ? "ACTI" : "CDCL";
+            createTime = referenceTime.minusMinutes(random.nextLong(30L * 24 * 60));
+        } else {
+            // Skew history toward a hot subset of cards: square of a uniform variate favours low indexes
+            double u = random.nextDouble();
+            cardIndex = (long) (u * u * cardCount);
+            reasonCode = random.nextInt(100) < 65 ? "ACTI" : "CDCL";
+            createTime = referenceTime.minusMinutes(random.nextLong(historyMinutes));
+        }
+
+        String cardNumber = cardNumber(cardIndex, randomFor(1, cardIndex));
+        return new Object[]{
+                reasonCode,
+                status,
+                Timestamp.valueOf(createTime),
+                encryptionService.encrypt(cardNumber)
+        };
+    }
+
+    // Must consume the card's random stream first so requests can recompute the same number
+    private String cardNumber(long index, SplittableRandom random) {
+        int bin = pickBin(random.nextInt(TOTAL_BIN_WEIGHT));
+        int accountDigits = BIN_LENGTHS[bin] - BINS[bin].length() - 1;
+        long accountSpace = (long) Math.pow(10, accountDigits);
+        long account = Math.floorMod(index * ACCOUNT_MULTIPLIER + seed, accountSpace);
+
+        String partial = BINS[bin] + String.format("%0" + accountDigits + "d", account);
+        return partial + CardNumberUtils.luhnCheckDigit(partial);
+    }
+
+    private SplittableRandom randomFor(long stream, long index) {
+        return new SplittableRandom(seed * GOLDEN_GAMMA + stream * 0x632BE59BD9B4E019L + index);
+    }
+
+    private static int pickBin(int roll) {
+        for (int i = 0; i < BIN_WEIGHTS.length; i++) {
+            roll -= BIN_WEIGHTS[i];
+            if (roll < 0) {
+                return i;
+            }
+        }
+        return BIN_WEIGHTS.length - 1;
+    }
+
+    @FunctionalInterface
+    private interface RowFactory {
+        Object[] row(long index);
+    }
+}
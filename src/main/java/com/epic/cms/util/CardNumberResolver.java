@@ -7,9 +7,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-
+import java.util.Set;
+
+/**
+ * Turns plain numbers, masked numbers and mask ids into cards. Lookups join the caller's
+ * transaction and take no read-only flag of their own: write and authorization paths resolve on
+ * the primary, so a card created moments ago is never missed on a lagging replica, while callers
+ * inside a read-only transaction still read from a replica.
+ */
 @Component
 public class CardNumberResolver {
 
@@ -22,32 +34,20 @@ public class CardNumberResolver {
         this.encryptionService = encryptionService;
     }
 
+    // Matched on the indexed first and last four digits; if several cards share them the oldest wins
     public Optional<Card> findByMaskedCardNumber(String maskedCardNumber) {
         if (maskedCardNumber == null || !maskedCardNumber.contains("*")) {
             return Optional.empty();
         }
-
-        try {
-            String firstFour = maskedCardNumber.substring(0, 4);
-            String lastFour = maskedCardNumber.substring(maskedCardNumber.length() - 4);
-
-            List<Card> allCards = cardRepository.findAll();
-            
-            for (Card card : allCards) {
-                try {
-                    String decryptedNumber = encryptionService.decrypt(card.getCardNumber());
-                    if (decryptedNumber.startsWith(firstFour) && decryptedNumber.endsWith(lastFour)) {
-                        card.setCardNumber(decryptedNumber);
-                        return Optional.of(card);
-                    }
-                } catch (Exception e) {
-                    logger.error("Error decrypting card number: {}", card.getCardNumber(), e);
-                }
-            }
-            return Optional.empty();
-        } catch (StringIndexOutOfBoundsException e) {
+        String ends = CardNumberUtils.cardNumberEnds(maskedCardNumber);
+        if (ends == null) {
             return Optional.empty();
         }
+
+        Optional<Card> card = cardRepository.findByCardNumberEnds(List.of(ends)).stream()
+                .min(Comparator.comparing(Card::getCardId));
+        card.ifPresent(found -> found.setCardNumber(encryptionService.decrypt(found.getCardNumber())));
+        return card;
     }
 
     public Optional<Card> findByMaskId(String maskId) {
@@ -55,21 +55,9 @@ public class CardNumberResolver {
             return Optional.empty();
         }
 
-        List<Card> allCards = cardRepository.findAll();
-        
-        for (Card card : allCards) {
-            try {
-                String decryptedNumber = encryptionService.decrypt(card.getCardNumber());
-                String cardMaskId = CardNumberUtils.generateMaskId(decryptedNumber);
-                if (cardMaskId.equals(maskId)) {
-                    card.setCardNumber(decryptedNumber);
-                    return Optional.of(card);
-                }
-            } catch (Exception e) {
-                logger.error("Error decrypting card number: {}", card.getCardNumber(), e);
-            }
-        }
-        return Optional.empty();
+        Optional<Card> card = cardRepository.findByMaskIds(List.of(maskId)).stream().findFirst();
+        card.ifPresent(found -> found.setCardNumber(encryptionService.decrypt(found.getCardNumber())));
+        return card;
     }
 
     public Optional<Card> resolveCard(String cardInput) {
@@ -80,8 +68,7 @@ public class CardNumberResolver {
         String trimmedInput = cardInput.trim();
 
         try {
-            String encryptedInput = encryptionService.encrypt(trimmedInput);
-            Optional<Card> card = cardRepository.findByCardNumber(encryptedInput);
+            Optional<Card> card = cardRepository.findByAnyCardNumber(encryptionService.encryptForLookup(trimmedInput));
             if (card.isPresent()) {
                 card.get().setCardNumber(encryptionService.decrypt(card.get().getCardNumber()));
                 return card;
@@ -100,4 +87,83 @@ public class CardNumberResolver {
 
         return Optional.empty();
     }
+
+    /**
+     * The ciphertext a plain card number is stored under. With a single key configured that is its
+     * encryption, with no query; while a key rotation is pending the row is looked up, since it may
+     * still be under a retired key. Empty if no such card exists (only known in the second case).
+     */
+    public Optional<String> findStoredCardNumber(String plainCardNumber) {
+        if (!encryptionService.hasRetiredKeys()) {
+            return Optional.of(encryptionService.encrypt(plainCardNumber));
+        }
+        return cardRepository.findStoredCardNumber(encryptionService.encryptForLookup(plainCardNumber));
+    }
+
+    /**
+     * Resolves many identifiers with one query per identifier class: plain numbers by ciphertext,
+     * mask ids by the indexed {@code mask_id} column, and masked numbers by the indexed
+     * {@code card_number_ends} column.
+     * Returns the cards (with decrypted numbers) keyed by the trimmed identifier; unresolved
+     * identifiers are absent from the map.
+     */
+    public Map<String, Card> resolveCards(List<String> identifiers) {
+        Map<String, String> plainByCiphertext = new HashMap<>();
+        Set<String> maskIds = new LinkedHashSet<>();
+        Map<String, List<String>> maskedByEnds = new HashMap<>();
+
+        for (String identifier : identifiers) {
+            if (identifier == null || identifier.isBlank()) {
+                continue;
+            }
+            String trimmed = identifier.trim();
+            if (trimmed.startsWith("MASK_")) {
+                maskIds.add(trimmed);
+            } else if (trimmed.contains("*")) {
+                String ends = CardNumberUtils.cardNumberEnds(trimmed);
+                if (ends != null) {
+                    maskedByEnds.computeIfAbsent(ends, key -> new ArrayList<>()).add(trimmed);
+                }
+            } else {
+                for (String candidate : encryptionService.encryptForLookup(trimmed)) {
+                    plainByCiphertext.put(candidate, trimmed);
+                }
+            }
+        }
+
+        Map<String, Card> resolved = new HashMap<>();
+
+        if (!plainByCiphertext.isEmpty()) {
+            for (Card card : cardRepository.findByCardNumbers(new ArrayList<>(plainByCiphertext.keySet()))) {
+                String plain = plainByCiphertext.get(card.getCardNumber());
+                card.setCardNumber(plain);
+                resolved.put(plain, card);
+            }
+        }
+
+        if (!maskIds.isEmpty()) {
+            for (Card card : cardRepository.findByMaskIds(new ArrayList<>(maskIds))) {
+                if (!resolved.containsKey(card.getMaskId())) {
+                    card.setCardNumber(encryptionService.decrypt(card.getCardNumber()));
+                    resolved.put(card.getMaskId(), card);
+                }
+            }
+        }
+
+        if (!maskedByEnds.isEmpty()) {
+            // Oldest card per pair of ends, as for a single masked lookup. Only the candidates the
+            // index returned are decrypted.
+            Map<String, Card> oldestByEnds = new HashMap<>();
+            for (Card card : cardRepository.findByCardNumberEnds(new ArrayList<>(maskedByEnds.keySet()))) {
+                card.setCardNumber(encryptionService.decrypt(card.getCardNumber()));
+                oldestByEnds.merge(CardNumberUtils.cardNumberEnds(card.getCardNumber()), card,
+                        (kept, other) -> kept.getCardId() <= other.getCardId() ? kept : other);
+            }
+            oldestByEnds.forEach((ends, card) ->
+                    maskedByEnds.getOrDefault(ends, List.of()).forEach(identifier -> resolved.put(identifier, card)));
+        }
+
+        logger.debug("resolveCards(count={}) - Resolved {} identifiers", identifiers.size(), resolved.size());
+        return resolved;
+    }
 }
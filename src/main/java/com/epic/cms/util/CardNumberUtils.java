@@ -60,4 +60,30 @@ public class CardNumberUtils {
             return "MASK_" + String.valueOf(cardNumber.hashCode()).replace("-", "N");
         }
     }
+    
+    // The digits a masked number keeps for lookups: first four and last four, e.g. "41111111" for
+    // 4111********1111. Null for numbers too short to mask.
+    public static String cardNumberEnds(String cardNumber) {
+        if (cardNumber == null || cardNumber.length() < 8) {
+            return null;
+        }
+        return cardNumber.substring(0, 4) + cardNumber.substring(cardNumber.length() - 4);
+    }
+
+    public static int luhnCheckDigit(String partialCardNumber) {
+        int sum = 0;
+        boolean doubleDigit = true;
+        for (int i = partialCardNumber.length() - 1; i >= 0; i--) {
+            int digit = partialCardNumber.charAt(i) - '0';
+            if (doubleDigit) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubleDigit = !doubleDigit;
+        }
+        return (10 - (sum % 10)) % 10;
+    }
 }
@@ -0,0 +1,160 @@
+package com.epic.cms.util;
+
+import com.epic.cms.config.BulkheadDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs independent queries of one service call side by side, each on its own pooled connection.
+ * <p>
+ * Usage follows the structured-concurrency shape: open a {@link Scope}, fork the side query, do the main
+ * work on the calling thread, then {@link Subtask#join()}. Leaving the scope (normally or by exception)
+ * cancels whatever is still running, so a failed page query never leaves an orphaned count behind.
+ * If the connection bulkhead has no spare permit the fork runs inline at join time instead, so a request
+ * that already holds a connection never waits on a second one. A permit taken for a fork belongs to the
+ * fork until its task starts, so a subtask cancelled or rejected before then hands it back.
+ */
+@Component
+public class ParallelQueryExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelQueryExecutor.class);
+
+    private final AsyncTaskExecutor taskExecutor;
+    private final BulkheadDataSource bulkhead;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ParallelQueryExecutor(@Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor,
+                                 DataSource dataSource,
+                                 PlatformTransactionManager transactionManager) {
+        this.taskExecutor = taskExecutor;
+        this.bulkhead = dataSource instanceof BulkheadDataSource bulkheadDataSource ? bulkheadDataSource : null;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public Scope open() {
+        return new Scope();
+    }
+
+    public class Scope implements AutoCloseable {
+
+        private final List<Subtask<?>> subtasks = new ArrayList<>();
+
+        public <T> Subtask<T> fork(Callable<T> task) {
+            // Keep forked reads on the same (replica) routing as the caller's read-only transaction
+            Callable<T> routed = TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                    ? () -> readOnlyTransaction.execute(status -> call(task))
+                    : task;
+
+            Subtask<T> subtask;
+            if (bulkhead == null) {
+                subtask = submit(routed, routed, () -> { });
+            } else if (!bulkhead.tryAcquirePermit()) {
+                logger.debug("fork() - No spare connection permit, running subtask inline");
+                subtask = new Subtask<>(null, routed, () -> { });
+            } else {
+                // Whichever of the task and a cancellation gets here first owns the permit
+                AtomicBoolean unclaimed = new AtomicBoolean(true);
+                Callable<T> guarded = () -> {
+                    if (!unclaimed.compareAndSet(true, false)) {
+                        throw new CancellationException("Subtask cancelled before it started");
+                    }
+                    return bulkhead.callWithAcquiredPermit(routed);
+                };
+                subtask = submit(guarded, routed, () -> {
+                    if (unclaimed.compareAndSet(true, false)) {
+                        bulkhead.releasePermit();
+                    }
+                });
+            }
+            subtasks.add(subtask);
+            return subtask;
+        }
+
+        // A rejected task runs inline at join time, like one without a spare permit
+        private <T> Subtask<T> submit(Callable<T> task, Callable<T> inlineTask, Runnable onCancel) {
+            try {
+                return new Subtask<>(taskExecutor.submit(task), null, onCancel);
+            } catch (TaskRejectedException e) {
+                logger.warn("fork() - Subtask rejected by the task executor, running it inline: {}", e.getMessage());
+                onCancel.run();
+                return new Subtask<>(null, inlineTask, () -> { });
+            }
+        }
+
+        @Override
+        public void close() {
+            for (Subtask<?> subtask : subtasks) {
+                subtask.cancel();
+            }
+        }
+    }
+
+    public static class Subtask<T> {
+
+        private final Future<T> future;
+        private final Callable<T> inlineTask;
+        private final Runnable onCancel;
+
+        private Subtask(Future<T> future, Callable<T> inlineTask, Runnable onCancel) {
+            this.future = future;
+            this.inlineTask = inlineTask;
+            this.onCancel = onCancel;
+        }
+
+        public T join() {
+            try {
+                return future != null ? future.get() : inlineTask.call();
+            } catch (ExecutionException e) {
+                throw rethrow(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel();
+                throw new CancellationException("Interrupted while joining subtask");
+            } catch (Exception e) {
+                throw rethrow(e);
+            }
+        }
+
+        private void cancel() {
+            if (future != null && !future.isDone()) {
+                future.cancel(true);
+            }
+            onCancel.run();
+        }
+    }
+
+    private static <T> T call(Callable<T> task) {
+        try {
+            return task.call();
+        } catch (Exception e) {
+            throw rethrow(e);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+}
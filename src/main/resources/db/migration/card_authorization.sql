@@ -0,0 +1,29 @@
+-- ===============================
+-- MIGRATION: CARD_AUTHORIZATION TABLE
+-- ===============================
+-- Creates the table that CardLedger records authorization holds in. Apply once with psql before
+-- deploying the release that authorizes through the ledger, and before card_id_surrogate_key.sql,
+-- which moves this table from card_number to card_id:
+--
+--   psql -v ON_ERROR_STOP=1 -d cms_db -f card_authorization.sql
+--
+-- The application can keep running. Safe to re-run.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS card_authorization (
+    authorization_id VARCHAR(36) PRIMARY KEY,
+    card_number VARCHAR(255) NOT NULL,
+    auth_type VARCHAR(10) NOT NULL CHECK (auth_type IN ('CREDIT', 'CASH')),
+    amount NUMERIC(15,2) NOT NULL CHECK (amount > 0),
+    status VARCHAR(20) NOT NULL CHECK (status IN ('HELD', 'CAPTURED', 'RELEASED')),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+
+    CONSTRAINT fk_authorization_card
+    FOREIGN KEY (card_number)
+    REFERENCES card(card_number)
+    ON DELETE CASCADE
+    );
+
+COMMIT;
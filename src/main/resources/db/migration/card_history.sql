@@ -0,0 +1,31 @@
+-- ===============================
+-- MIGRATION: CARD_HISTORY AUDIT TABLE
+-- ===============================
+-- Creates the append-only card_history table that CardHistoryRecorder writes. Apply once with psql
+-- before deploying the release that records history, and before card_id_surrogate_key.sql, which
+-- moves this table from card_number to card_id:
+--
+--   psql -v ON_ERROR_STOP=1 -d cms_db -f card_history.sql
+--
+-- The application can keep running; history starts with the first change after the deploy.
+-- Safe to re-run.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS card_history (
+    history_id BIGSERIAL PRIMARY KEY,
+    card_number VARCHAR(255) NOT NULL,
+    change_type VARCHAR(40) NOT NULL,
+    changes TEXT NOT NULL,
+    changed_at TIMESTAMP NOT NULL,
+
+    CONSTRAINT fk_history_card
+    FOREIGN KEY (card_number)
+    REFERENCES card(card_number)
+    ON DELETE CASCADE
+    );
+
+CREATE INDEX IF NOT EXISTS idx_card_history_card
+    ON card_history(card_number, changed_at DESC, history_id DESC);
+
+COMMIT;
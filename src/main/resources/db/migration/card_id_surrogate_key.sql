@@ -0,0 +1,73 @@
+-- ===============================
+-- MIGRATION: SURROGATE CARD_ID KEY
+-- ===============================
+-- Moves an existing database from card_number (ciphertext) keys to the BIGINT card_id key that
+-- schema.sql now creates. Not run automatically; apply once with psql while the application is
+-- stopped, after card_history.sql, card_authorization.sql and card_number_ends.sql:
+--
+--   psql -v ON_ERROR_STOP=1 -d cms_db -f card_id_surrogate_key.sql
+--
+-- Everything runs in one transaction, so a failure leaves the old schema untouched. The backfill
+-- updates rewrite card_request, card_history and card_authorization once each; on large tables
+-- expect that to dominate, and run VACUUM ANALYZE on them afterwards.
+
+BEGIN;
+
+-- 1. The new key on card, numbered in the existing primary key (card_number) order. ADD COLUMN
+-- BIGSERIAL would number rows in heap order, so ids are assigned explicitly and the sequence is
+-- attached afterwards, continuing past the highest id.
+ALTER TABLE card ADD COLUMN card_id BIGINT;
+CREATE SEQUENCE card_card_id_seq OWNED BY card.card_id;
+
+UPDATE card c SET card_id = numbered.card_id
+FROM (SELECT card_number, row_number() OVER (ORDER BY card_number) AS card_id FROM card) numbered
+WHERE numbered.card_number = c.card_number;
+
+SELECT setval('card_card_id_seq', COALESCE(MAX(card_id), 0) + 1, false) FROM card;
+ALTER TABLE card ALTER COLUMN card_id SET DEFAULT nextval('card_card_id_seq');
+ALTER TABLE card ALTER COLUMN card_id SET NOT NULL;
+
+-- 2. Child columns, filled from the card they reference today
+ALTER TABLE card_request ADD COLUMN card_id BIGINT;
+ALTER TABLE card_history ADD COLUMN card_id BIGINT;
+ALTER TABLE card_authorization ADD COLUMN card_id BIGINT;
+
+UPDATE card_request r SET card_id = c.card_id FROM card c WHERE c.card_number = r.card_number;
+UPDATE card_history h SET card_id = c.card_id FROM card c WHERE c.card_number = h.card_number;
+UPDATE card_authorization a SET card_id = c.card_id FROM card c WHERE c.card_number = a.card_number;
+
+ALTER TABLE card_request ALTER COLUMN card_id SET NOT NULL;
+ALTER TABLE card_history ALTER COLUMN card_id SET NOT NULL;
+ALTER TABLE card_authorization ALTER COLUMN card_id SET NOT NULL;
+
+-- 3. Swap the keys: drop the ciphertext foreign keys and primary key, then add the new ones.
+-- The card_number index is kept as a unique constraint for lookups.
+ALTER TABLE card_request DROP CONSTRAINT fk_request_card;
+ALTER TABLE card_history DROP CONSTRAINT fk_history_card;
+ALTER TABLE card_authorization DROP CONSTRAINT fk_authorization_card;
+
+ALTER TABLE card DROP CONSTRAINT card_pkey;
+ALTER TABLE card ADD CONSTRAINT card_pkey PRIMARY KEY (card_id);
+ALTER TABLE card ADD CONSTRAINT uq_card_number UNIQUE (card_number);
+
+ALTER TABLE card_request ADD CONSTRAINT fk_request_card
+    FOREIGN KEY (card_id) REFERENCES card(card_id) ON DELETE CASCADE;
+ALTER TABLE card_history ADD CONSTRAINT fk_history_card
+    FOREIGN KEY (card_id) REFERENCES card(card_id) ON DELETE CASCADE;
+ALTER TABLE card_authorization ADD CONSTRAINT fk_authorization_card
+    FOREIGN KEY (card_id) REFERENCES card(card_id) ON DELETE CASCADE;
+
+-- 4. Per-card keyset indexes on the new column
+DROP INDEX IF EXISTS idx_request_card;
+DROP INDEX IF EXISTS idx_card_history_card;
+CREATE INDEX idx_request_card
+    ON card_request(card_id, create_time DESC, request_id DESC);
+CREATE INDEX idx_card_history_card
+    ON card_history(card_id, changed_at DESC, history_id DESC);
+
+-- 5. The ciphertext copies in the child tables are no longer read or written
+ALTER TABLE card_request DROP COLUMN card_number;
+ALTER TABLE card_history DROP COLUMN card_number;
+ALTER TABLE card_authorization DROP COLUMN card_number;
+
+COMMIT;
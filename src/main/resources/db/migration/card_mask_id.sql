@@ -0,0 +1,18 @@
+-- ===============================
+-- MIGRATION: CARD MASK_ID COLUMN
+-- ===============================
+-- Adds the mask_id column and index that schema.sql now creates to an existing database. Apply once
+-- with psql before deploying a release that reads mask_id, and before card_id_surrogate_key.sql:
+--
+--   psql -v ON_ERROR_STOP=1 -d cms_db -f card_mask_id.sql
+--
+-- The application can keep running. Adding a nullable column without a default only touches the
+-- catalog, and the index is built CONCURRENTLY, so neither blocks card writes; for that reason the
+-- statements do not run inside one transaction. Existing rows are left NULL and filled in by
+-- MaskIdBackfillJob after the release starts. Both statements are safe to re-run; if a concurrent
+-- build fails it leaves an INVALID index, which must be dropped before running this again.
+
+ALTER TABLE card ADD COLUMN IF NOT EXISTS mask_id VARCHAR(20);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_card_mask_id
+    ON card(mask_id);
@@ -0,0 +1,19 @@
+-- ===============================
+-- MIGRATION: CARD CARD_NUMBER_ENDS COLUMN
+-- ===============================
+-- Adds the indexed first-and-last-four-digits column that masked card numbers are resolved by, so
+-- masked lookups no longer decrypt the whole card table. Apply once with psql after
+-- card_mask_id.sql, before deploying a release that reads card_number_ends:
+--
+--   psql -v ON_ERROR_STOP=1 -d cms_db -f card_number_ends.sql
+--
+-- The application can keep running. The nullable column only touches the catalog and the index is
+-- built CONCURRENTLY, so the statements do not run inside one transaction. Existing rows are left
+-- NULL and filled in by MaskIdBackfillJob after the release starts; until the backfill reaches a
+-- card it is not found by masked number. Safe to re-run; if a concurrent build fails it leaves an
+-- INVALID index, which must be dropped before running this again.
+
+ALTER TABLE card ADD COLUMN IF NOT EXISTS card_number_ends VARCHAR(8);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_card_number_ends
+    ON card(card_number_ends);
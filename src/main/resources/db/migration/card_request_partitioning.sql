@@ -0,0 +1,94 @@
+-- ===============================
+-- MIGRATION: PARTITION CARD_REQUEST BY MONTH
+-- ===============================
+-- Rebuilds an existing card_request as the monthly range-partitioned table schema.sql now creates.
+-- Apply after card_id_surrogate_key.sql, once, with psql while the application is stopped:
+--
+--   psql -v ON_ERROR_STOP=1 -d cms_db -f card_request_partitioning.sql
+--
+-- One partition is created per month that holds requests, plus the current month and three ahead;
+-- CardRequestPartitionManager takes over from there and archives old processed months on its first
+-- run. Rows are copied once, so expect the INSERT to dominate on a large table. Runs in a single
+-- transaction; a failure leaves the old table in place.
+
+BEGIN;
+
+-- 1. Move the old table and its uniquely named objects out of the way
+ALTER TABLE card_request RENAME TO card_request_unpartitioned;
+ALTER INDEX card_request_pkey RENAME TO card_request_unpartitioned_pkey;
+DROP INDEX IF EXISTS idx_request_status;
+DROP INDEX IF EXISTS idx_request_pending;
+DROP INDEX IF EXISTS idx_request_card;
+
+-- 2. The partitioned table, keeping the existing request_id sequence
+CREATE TABLE card_request (
+    request_id INTEGER NOT NULL DEFAULT nextval('card_request_request_id_seq'),
+    card_id BIGINT NOT NULL,
+    request_reason_code VARCHAR(20) NOT NULL,
+    status_code VARCHAR(20) NOT NULL,
+    create_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    PRIMARY KEY (request_id, create_time),
+
+    CONSTRAINT fk_request_card_partitioned
+    FOREIGN KEY (card_id)
+    REFERENCES card(card_id)
+    ON DELETE CASCADE,
+
+    CONSTRAINT fk_request_type_partitioned
+    FOREIGN KEY (request_reason_code)
+    REFERENCES card_request_type(code),
+
+    CONSTRAINT fk_request_status_partitioned
+    FOREIGN KEY (status_code)
+    REFERENCES request_status(status_code)
+    ) PARTITION BY RANGE (create_time);
+
+-- 3. Monthly partitions for the existing data and the next few months
+DO $$
+DECLARE
+    first_month DATE;
+    last_month DATE := date_trunc('month', CURRENT_DATE + INTERVAL '3 months');
+    month DATE;
+BEGIN
+    SELECT COALESCE(date_trunc('month', MIN(create_time)), date_trunc('month', CURRENT_DATE))
+    INTO first_month
+    FROM card_request_unpartitioned;
+
+    month := first_month;
+    WHILE month <= last_month LOOP
+        EXECUTE format('CREATE TABLE card_request_p%s PARTITION OF card_request FOR VALUES FROM (%L) TO (%L)',
+                       to_char(month, 'YYYYMM'), month, month + INTERVAL '1 month');
+        month := month + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+-- 4. Copy the rows, then hand the sequence to the new table and drop the old one
+INSERT INTO card_request (request_id, card_id, request_reason_code, status_code, create_time)
+SELECT request_id, card_id, request_reason_code, status_code, create_time
+FROM card_request_unpartitioned;
+
+ALTER SEQUENCE card_request_request_id_seq OWNED BY card_request.request_id;
+DROP TABLE card_request_unpartitioned;
+
+ALTER TABLE card_request RENAME CONSTRAINT fk_request_card_partitioned TO fk_request_card;
+ALTER TABLE card_request RENAME CONSTRAINT fk_request_type_partitioned TO fk_request_type;
+ALTER TABLE card_request RENAME CONSTRAINT fk_request_status_partitioned TO fk_request_status;
+
+-- 5. Indexes as in schema.sql; created on the parent, they cascade to every partition
+CREATE INDEX idx_request_status
+    ON card_request(status_code);
+
+CREATE INDEX idx_request_pending
+    ON card_request(request_id)
+    WHERE status_code = 'PENDING';
+
+CREATE INDEX idx_request_create_time
+    ON card_request(create_time DESC, request_id DESC);
+
+CREATE INDEX idx_request_card
+    ON card_request(card_id, create_time DESC, request_id DESC);
+
+COMMIT;
+
+ANALYZE card_request;
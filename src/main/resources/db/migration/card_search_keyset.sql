@@ -0,0 +1,18 @@
+-- ===============================
+-- MIGRATION: CARD SEARCH KEYSET ON CARD_ID
+-- ===============================
+-- Card search pages on card_id rather than the card_number ciphertext, which key rotation rewrites.
+-- Rebuilds the status filter index on the new keyset column. Apply once with psql after
+-- card_id_surrogate_key.sql:
+--
+--   psql -v ON_ERROR_STOP=1 -d cms_db -f card_search_keyset.sql
+--
+-- The replacement is built CONCURRENTLY before the old index is dropped, so card writes and
+-- searches keep running; the statements therefore do not run inside one transaction.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_card_status_card_id
+    ON card(status_code, card_id);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_card_status;
+
+ALTER INDEX idx_card_status_card_id RENAME TO idx_card_status;
@@ -0,0 +1,15 @@
+-- ===============================
+-- MIGRATION: CARD STATUS/EXPIRY INDEX
+-- ===============================
+-- Adds the (status_code, expiry_date) index that ExpiredCardSweeper walks to find active cards past
+-- their expiry date, so the sweep does not scan the whole card table. Apply once with psql before
+-- deploying the release that schedules the sweeper:
+--
+--   psql -v ON_ERROR_STOP=1 -d cms_db -f card_status_expiry.sql
+--
+-- The application can keep running. The index is built CONCURRENTLY, so the statement does not run
+-- inside a transaction. Safe to re-run; if a concurrent build fails it leaves an INVALID index,
+-- which must be dropped before running this again.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_card_status_expiry
+    ON card(status_code, expiry_date);
@@ -0,0 +1,27 @@
+-- ===============================
+-- MIGRATION: JOB_RUN TABLE
+-- ===============================
+-- Creates the table that JobRunner records each scheduled job execution in. Apply once with psql
+-- before deploying the release that runs jobs through JobRunner:
+--
+--   psql -v ON_ERROR_STOP=1 -d cms_db -f job_run.sql
+--
+-- The application can keep running. Safe to re-run.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS job_run (
+    run_id BIGSERIAL PRIMARY KEY,
+    job_name VARCHAR(60) NOT NULL,
+    node_id VARCHAR(100) NOT NULL,
+    started_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP NOT NULL,
+    duration_ms BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('SUCCEEDED', 'FAILED')),
+    error_message TEXT
+    );
+
+CREATE INDEX IF NOT EXISTS idx_job_run_job
+    ON job_run(job_name, started_at DESC);
+
+COMMIT;
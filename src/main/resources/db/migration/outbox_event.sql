@@ -0,0 +1,28 @@
+-- ===============================
+-- MIGRATION: OUTBOX_EVENT TABLE
+-- ===============================
+-- Creates the transactional outbox that card services write lifecycle events to and
+-- OutboxRelay publishes from. Apply once with psql before deploying the release that writes it:
+--
+--   psql -v ON_ERROR_STOP=1 -d cms_db -f outbox_event.sql
+--
+-- The application can keep running; the table starts empty, so only changes made after the
+-- deploy are published. Safe to re-run.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS outbox_event (
+    event_id BIGSERIAL PRIMARY KEY,
+    aggregate_id VARCHAR(40) NOT NULL,
+    event_type VARCHAR(40) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP
+    );
+
+-- Only the unpublished backlog is indexed, so the relay's scan stays small as history grows
+CREATE INDEX IF NOT EXISTS idx_outbox_unpublished
+    ON outbox_event(event_id)
+    WHERE published_at IS NULL;
+
+COMMIT;
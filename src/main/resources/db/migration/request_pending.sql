@@ -0,0 +1,17 @@
+-- ===============================
+-- MIGRATION: PENDING CARD REQUEST INDEX
+-- ===============================
+-- Adds the partial index over PENDING card requests that PendingRequestAutoDecisionJob walks, so each batch
+-- reads only undecided requests instead of the whole card_request table. Apply once with psql before
+-- deploying the release that auto-decides requests, and before card_request_partitioning.sql, which
+-- recreates the index on the partitioned table:
+--
+--   psql -v ON_ERROR_STOP=1 -d cms_db -f request_pending.sql
+--
+-- The application can keep running. The index is built CONCURRENTLY, so the statement does not run
+-- inside a transaction. Safe to re-run; if a concurrent build fails it leaves an INVALID index,
+-- which must be dropped before running this again.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_request_pending
+    ON card_request(request_id)
+    WHERE status_code = 'PENDING';
@@ -0,0 +1,32 @@
+-- ===============================
+-- MIGRATION: STATUS_COUNTER SUMMARY TABLE
+-- ===============================
+-- Creates the status_counter table behind GET /api/stats and seeds it from the current card and
+-- card_request counts. Apply once with psql before deploying the release that maintains it:
+--
+--   psql -v ON_ERROR_STOP=1 -d cms_db -f status_counter.sql
+--
+-- The application can keep running; the seed is a plain count. Changes made by the old release
+-- between the seed and the deploy leave the counters slightly off, and StatusCounterReconciliationJob
+-- repairs that on its first run. Safe to re-run: an existing table and existing counters are kept.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS status_counter (
+    counter_key VARCHAR(60) NOT NULL,
+    slot SMALLINT NOT NULL,
+    counter_value BIGINT NOT NULL DEFAULT 0,
+
+    PRIMARY KEY (counter_key, slot)
+    );
+
+-- Seeded into slot 0; writers add to a random slot and readers sum them all
+INSERT INTO status_counter (counter_key, slot, counter_value)
+SELECT 'card:' || status_code, 0, COUNT(*)
+FROM card GROUP BY status_code
+UNION ALL
+SELECT 'request:' || status_code || ':' || request_reason_code, 0, COUNT(*)
+FROM card_request GROUP BY status_code, request_reason_code
+ON CONFLICT (counter_key, slot) DO NOTHING;
+
+COMMIT;
@@ -2,7 +2,13 @@
 -- DROP EXISTING TABLES (Clean Slate)
 -- ===============================
 
+DROP TABLE IF EXISTS job_run;
+DROP TABLE IF EXISTS outbox_event;
+DROP TABLE IF EXISTS status_counter;
+DROP TABLE IF EXISTS card_authorization;
+DROP TABLE IF EXISTS card_history;
 DROP TABLE IF EXISTS card_request;
+DROP SCHEMA IF EXISTS card_request_archive CASCADE;
 DROP TABLE IF EXISTS card;
 DROP TABLE IF EXISTS card_request_type;
 DROP TABLE IF EXISTS request_status;
@@ -40,8 +46,12 @@ CREATE TABLE card_request_type (
 -- TRANSACTION TABLE: CARD
 -- ===============================
 
+-- card_id is the key everything else references; the ciphertext is unique but only used for
+-- lookups, so re-encrypting a card under a new key touches this table alone
+
 CREATE TABLE card (
-                                    card_number VARCHAR(255) PRIMARY KEY,
+                                    card_id BIGSERIAL PRIMARY KEY,
+                                    card_number VARCHAR(255) NOT NULL,
     expiry_date DATE NOT NULL,
     status_code VARCHAR(20) NOT NULL,
     credit_limit NUMERIC(15,2) NOT NULL CHECK (credit_limit >= 0),
@@ -49,6 +59,11 @@ CREATE TABLE card (
     available_credit_limit NUMERIC(15,2) NOT NULL CHECK (available_credit_limit >= 0),
     available_cash_limit NUMERIC(15,2) NOT NULL CHECK (available_cash_limit >= 0),
     last_update_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    mask_id VARCHAR(20),
+    card_number_ends VARCHAR(8),
+
+    CONSTRAINT uq_card_number
+    UNIQUE (card_number),
 
     CONSTRAINT fk_card_status
     FOREIGN KEY (status_code)
@@ -58,17 +73,23 @@ CREATE TABLE card (
 -- ===============================
 -- TRANSACTION TABLE: CARD_REQUEST
 -- ===============================
+-- Range-partitioned by month on create_time. Partitions (card_request_pYYYYMM) are created ahead
+-- of time and old processed ones moved to the card_request_archive schema by
+-- CardRequestPartitionManager; there is no default partition, so a row outside every partition
+-- fails loudly and newest-first scans can read the partitions in order.
 
 CREATE TABLE card_request (
-                                            request_id SERIAL PRIMARY KEY,
-                                            card_number VARCHAR(255) NOT NULL,
+                                            request_id SERIAL,
+                                            card_id BIGINT NOT NULL,
     request_reason_code VARCHAR(20) NOT NULL,
     status_code VARCHAR(20) NOT NULL,
     create_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
 
+    PRIMARY KEY (request_id, create_time),
+
     CONSTRAINT fk_request_card
-    FOREIGN KEY (card_number)
-    REFERENCES card(card_number)
+    FOREIGN KEY (card_id)
+    REFERENCES card(card_id)
     ON DELETE CASCADE,
 
     CONSTRAINT fk_request_type
@@ -78,17 +99,143 @@ CREATE TABLE card_request (
     CONSTRAINT fk_request_status
     FOREIGN KEY (status_code)
     REFERENCES request_status(status_code)
+    ) PARTITION BY RANGE (create_time);
+
+-- ===============================
+-- AUDIT TABLE: CARD_HISTORY
+-- ===============================
+-- Append-only; each row is the JSON diff of one change, {"field": [old, new], ...}
+
+CREATE TABLE card_history (
+    history_id BIGSERIAL PRIMARY KEY,
+    card_id BIGINT NOT NULL,
+    change_type VARCHAR(40) NOT NULL,
+    changes TEXT NOT NULL,
+    changed_at TIMESTAMP NOT NULL,
+
+    CONSTRAINT fk_history_card
+    FOREIGN KEY (card_id)
+    REFERENCES card(card_id)
+    ON DELETE CASCADE
+    );
+
+-- ===============================
+-- TABLE: CARD_AUTHORIZATION
+-- ===============================
+-- Holds placed against available credit/cash. Written in the same transaction that takes the
+-- amount off the card's available_* columns, so the two always agree.
+
+CREATE TABLE card_authorization (
+    authorization_id VARCHAR(36) PRIMARY KEY,
+    card_id BIGINT NOT NULL,
+    auth_type VARCHAR(10) NOT NULL CHECK (auth_type IN ('CREDIT', 'CASH')),
+    amount NUMERIC(15,2) NOT NULL CHECK (amount > 0),
+    status VARCHAR(20) NOT NULL CHECK (status IN ('HELD', 'CAPTURED', 'RELEASED')),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+
+    CONSTRAINT fk_authorization_card
+    FOREIGN KEY (card_id)
+    REFERENCES card(card_id)
+    ON DELETE CASCADE
+    );
+
+-- ===============================
+-- SUMMARY TABLE: STATUS_COUNTER
+-- ===============================
+-- Incrementally maintained counts for GET /api/stats. Each counter is striped over a few
+-- slots so concurrent writers rarely update the same row; readers sum the slots.
+
+CREATE TABLE status_counter (
+    counter_key VARCHAR(60) NOT NULL,
+    slot SMALLINT NOT NULL,
+    counter_value BIGINT NOT NULL DEFAULT 0,
+
+    PRIMARY KEY (counter_key, slot)
+    );
+
+-- ===============================
+-- OUTBOX TABLE: OUTBOX_EVENT
+-- ===============================
+-- Card lifecycle events for downstream systems, written in the same transaction as the change
+-- and relayed in event_id order; published rows are kept for a retention period.
+
+CREATE TABLE outbox_event (
+    event_id BIGSERIAL PRIMARY KEY,
+    aggregate_id VARCHAR(40) NOT NULL,
+    event_type VARCHAR(40) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP
+    );
+
+-- ===============================
+-- TABLE: JOB_RUN
+-- ===============================
+-- One row per run of a leader-elected background job, by whichever instance held the job's
+-- advisory lock at the time.
+
+CREATE TABLE job_run (
+    run_id BIGSERIAL PRIMARY KEY,
+    job_name VARCHAR(60) NOT NULL,
+    node_id VARCHAR(100) NOT NULL,
+    started_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP NOT NULL,
+    duration_ms BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('SUCCEEDED', 'FAILED')),
+    error_message TEXT
     );
 
 -- ===============================
 -- INDEXES
 -- ===============================
 
+-- Search filters; each carries the keyset column or can be bitmap-combined with the others
 CREATE INDEX idx_card_status
-    ON card(status_code);
+    ON card(status_code, card_id);
+
+CREATE INDEX idx_card_status_expiry
+    ON card(status_code, expiry_date);
+
+CREATE INDEX idx_card_expiry
+    ON card(expiry_date);
+
+CREATE INDEX idx_card_credit_limit
+    ON card(credit_limit);
+
+CREATE INDEX idx_card_last_update
+    ON card(last_update_time);
+
+CREATE INDEX idx_card_mask_id
+    ON card(mask_id);
+
+-- Masked-number lookups: first four and last four digits
+CREATE INDEX idx_card_number_ends
+    ON card(card_number_ends);
 
 CREATE INDEX idx_request_status
     ON card_request(status_code);
 
+-- Auto-decision batches walk the pending queue in request_id order
+CREATE INDEX idx_request_pending
+    ON card_request(request_id)
+    WHERE status_code = 'PENDING';
+
+-- Newest-first listing across all cards
+CREATE INDEX idx_request_create_time
+    ON card_request(create_time DESC, request_id DESC);
+
+-- Per-card history in keyset order; also serves the foreign key
 CREATE INDEX idx_request_card
-    ON card_request(card_number);
+    ON card_request(card_id, create_time DESC, request_id DESC);
+
+CREATE INDEX idx_card_history_card
+    ON card_history(card_id, changed_at DESC, history_id DESC);
+
+-- Only the unpublished backlog is indexed, so the relay's scan stays small as history grows
+CREATE INDEX idx_outbox_unpublished
+    ON outbox_event(event_id)
+    WHERE published_at IS NULL;
+
+CREATE INDEX idx_job_run_job
+    ON job_run(job_name, started_at DESC);
@@ -0,0 +1,371 @@
+package com.epic.cms.ledger;
+
+import com.epic.cms.dto.AuthorizationResponseDto;
+import com.epic.cms.exception.BusinessException;
+import com.epic.cms.exception.ResourceNotFoundException;
+import com.epic.cms.model.Card;
+import com.epic.cms.model.CardAuthorization;
+import com.epic.cms.repository.CardAuthorizationRepository;
+import com.epic.cms.repository.CardRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The ledger against mocked repositories backed by an in-memory card table whose transactions
+ * serialise and roll back like row-locked ones: holds decided by the row, balances reported from a
+ * batch, failed batches and settlement, without a database.
+ */
+class CardLedgerTest {
+
+    private static final String CARD_NUMBER = "v1:encrypted";
+    private static final long CARD_ID = 42L;
+
+    private CardTable table;
+    private CardRepository cardRepository;
+    private CardAuthorizationRepository authorizationRepository;
+    private final List<CardLedger> ledgers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        table = new CardTable();
+        table.cards.put(CARD_NUMBER, card(CARD_ID, "CACT", LocalDate.now().plusYears(3)));
+        cardRepository = mock(CardRepository.class);
+        authorizationRepository = mock(CardAuthorizationRepository.class);
+        table.bind(cardRepository, authorizationRepository);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (CardLedger ledger : ledgers) {
+            ledger.stop();
+        }
+    }
+
+    @Test
+    void twoInstancesNeverOverdrawTheSameCard() throws Exception {
+        CardLedger batching = newLedger();
+        batching.start();
+        CardLedger direct = newLedger();
+        List<Callable<String>> attempts = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            CardLedger ledger = i % 2 == 0 ? batching : direct;
+            attempts.add(() -> ledger.authorize(CARD_NUMBER, "CREDIT", new BigDecimal("1.00")).getStatus());
+        }
+        int held = 0;
+        for (Future<String> result : runAll(attempts)) {
+            if (CardLedger.HELD.equals(result.get())) {
+                held++;
+            }
+        }
+
+        assertEquals(1000, held);
+        assertEquals(1000, table.authorizations.size());
+        assertEquals(new BigDecimal("0.00"), table.cards.get(CARD_NUMBER).getAvailableCreditLimit());
+        assertEquals("INSUFFICIENT_CREDIT",
+                direct.authorize(CARD_NUMBER, "CREDIT", new BigDecimal("0.01")).getDeclineReason());
+    }
+
+    @Test
+    void batchedHoldsEachReportTheBalanceTheyLeft() throws Exception {
+        CardLedger ledger = newLedger();
+        ledger.start();
+        List<Callable<BigDecimal>> attempts = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            attempts.add(() -> ledger.authorize(CARD_NUMBER, "CREDIT", new BigDecimal("1.00")).getAvailableCreditLimit());
+        }
+        TreeSet<BigDecimal> reported = new TreeSet<>();
+        for (Future<BigDecimal> result : runAll(attempts)) {
+            reported.add(result.get());
+        }
+
+        // 1000 different balances, from 999.00 down to 0.00
+        assertEquals(1000, reported.size());
+        assertEquals(new BigDecimal("0.00"), reported.first());
+        assertEquals(new BigDecimal("999.00"), reported.last());
+    }
+
+    @Test
+    void declineInsideABatchSeesTheHoldsBeforeIt() {
+        CardLedger ledger = newLedger();
+        CardLedger.PendingAuthorization first = ledger.new PendingAuthorization(CARD_NUMBER, "CREDIT", 10000);
+        CardLedger.PendingAuthorization tooLarge = ledger.new PendingAuthorization(CARD_NUMBER, "CREDIT", 95000);
+        CardLedger.PendingAuthorization cash = ledger.new PendingAuthorization(CARD_NUMBER, "CASH", 5000);
+
+        ledger.process(List.of(first, tooLarge, cash));
+
+        assertEquals(new BigDecimal("900.00"), first.result.join().getAvailableCreditLimit());
+        AuthorizationResponseDto declined = tooLarge.result.join();
+        assertEquals("INSUFFICIENT_CREDIT", declined.getDeclineReason());
+        assertNull(declined.getAuthorizationId());
+        assertEquals(new BigDecimal("900.00"), declined.getAvailableCreditLimit());
+        assertEquals(new BigDecimal("850.00"), cash.result.join().getAvailableCreditLimit());
+        assertEquals(new BigDecimal("150.00"), cash.result.join().getAvailableCashLimit());
+    }
+
+    @Test
+    void cashDrawsOnBothLimits() {
+        CardLedger ledger = newLedger();
+
+        assertEquals("INSUFFICIENT_CASH",
+                ledger.authorize(CARD_NUMBER, "CASH", new BigDecimal("200.01")).getDeclineReason());
+        AuthorizationResponseDto held = ledger.authorize(CARD_NUMBER, "CASH", new BigDecimal("150.00"));
+
+        assertEquals(new BigDecimal("850.00"), held.getAvailableCreditLimit());
+        assertEquals(new BigDecimal("50.00"), held.getAvailableCashLimit());
+    }
+
+    @Test
+    void inactiveExpiredAndMissingCards() {
+        CardLedger ledger = newLedger();
+        table.cards.put("v1:blocked", card(43L, "CBLK", LocalDate.now().plusYears(1)));
+        table.cards.put("v1:expired", card(44L, "CACT", LocalDate.now().minusDays(1)));
+
+        assertEquals("CARD_NOT_ACTIVE", ledger.authorize("v1:blocked", "CREDIT", BigDecimal.ONE).getDeclineReason());
+        assertEquals("CARD_EXPIRED", ledger.authorize("v1:expired", "CREDIT", BigDecimal.ONE).getDeclineReason());
+        assertThrows(ResourceNotFoundException.class, () -> ledger.authorize("v1:missing", "CREDIT", BigDecimal.ONE));
+    }
+
+    @Test
+    void failedBatchIsRetriedOneAtATimeWithoutLosingHolds() {
+        CardLedger ledger = newLedger();
+        table.failingInserts.set(1);
+        CardLedger.PendingAuthorization first = ledger.new PendingAuthorization(CARD_NUMBER, "CREDIT", 10000);
+        CardLedger.PendingAuthorization second = ledger.new PendingAuthorization(CARD_NUMBER, "CREDIT", 20000);
+
+        ledger.process(List.of(first, second));
+
+        assertEquals(CardLedger.HELD, first.result.join().getStatus());
+        assertEquals(CardLedger.HELD, second.result.join().getStatus());
+        // The rolled-back batch left nothing behind; each retry took its amount once
+        assertEquals(new BigDecimal("700.00"), table.cards.get(CARD_NUMBER).getAvailableCreditLimit());
+        assertEquals(2, table.authorizations.size());
+    }
+
+    @Test
+    void authorizationThatCannotBeWrittenFailsInsteadOfBeingApproved() {
+        CardLedger ledger = newLedger();
+        table.failingInserts.set(Integer.MAX_VALUE);
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> ledger.authorize(CARD_NUMBER, "CREDIT", new BigDecimal("10.00")));
+        assertEquals(new BigDecimal("1000.00"), table.cards.get(CARD_NUMBER).getAvailableCreditLimit());
+        assertEquals(0, table.authorizations.size());
+    }
+
+    @Test
+    void releaseRestoresTheHoldAndCaptureKeepsIt() {
+        CardLedger ledger = newLedger();
+        String released = ledger.authorize(CARD_NUMBER, "CASH", new BigDecimal("100.00")).getAuthorizationId();
+        String captured = ledger.authorize(CARD_NUMBER, "CREDIT", new BigDecimal("300.00")).getAuthorizationId();
+
+        AuthorizationResponseDto afterRelease = ledger.release(CARD_NUMBER, released);
+        assertEquals(new BigDecimal("700.00"), afterRelease.getAvailableCreditLimit());
+        assertEquals(new BigDecimal("200.00"), afterRelease.getAvailableCashLimit());
+        assertEquals(new BigDecimal("700.00"), ledger.capture(CARD_NUMBER, captured).getAvailableCreditLimit());
+
+        // Only a HELD authorization can move, and only through its own card
+        assertThrows(BusinessException.class, () -> ledger.release(CARD_NUMBER, released));
+        assertThrows(BusinessException.class, () -> ledger.capture(CARD_NUMBER, released));
+        assertThrows(BusinessException.class, () -> ledger.release(CARD_NUMBER, captured));
+        table.cards.put("v1:other", card(43L, "CACT", LocalDate.now().plusYears(1)));
+        assertThrows(ResourceNotFoundException.class, () -> ledger.release("v1:other", captured));
+        assertThrows(ResourceNotFoundException.class, () -> ledger.release(CARD_NUMBER, "unknown"));
+        assertEquals(new BigDecimal("700.00"), table.cards.get(CARD_NUMBER).getAvailableCreditLimit());
+    }
+
+    @Test
+    void limitChangeRefusedByTheRowIsReported() {
+        CardLedger ledger = newLedger();
+        Card card = table.cards.get(CARD_NUMBER);
+        when(cardRepository.update(any())).thenReturn(0);
+        when(cardRepository.findById(CARD_ID)).thenReturn(Optional.of(card));
+
+        assertThrows(BusinessException.class, () -> ledger.updateCard(card));
+
+        when(cardRepository.findById(CARD_ID)).thenReturn(Optional.empty());
+        assertThrows(ResourceNotFoundException.class, () -> ledger.updateCard(card));
+    }
+
+    private CardLedger newLedger() {
+        CardLedger ledger = new CardLedger(cardRepository, authorizationRepository, table,
+                new SimpleMeterRegistry(), 50, 1000);
+        ledgers.add(ledger);
+        return ledger;
+    }
+
+    private static <T> List<Future<T>> runAll(List<Callable<T>> tasks) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            return executor.invokeAll(tasks);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Card card(long cardId, String statusCode, LocalDate expiryDate) {
+        return Card.builder()
+                .cardId(cardId)
+                .expiryDate(expiryDate)
+                .statusCode(statusCode)
+                .creditLimit(new BigDecimal("1000.00"))
+                .cashLimit(new BigDecimal("200.00"))
+                .availableCreditLimit(new BigDecimal("1000.00"))
+                .availableCashLimit(new BigDecimal("200.00"))
+                .build();
+    }
+
+    /**
+     * The card and card_authorization tables. One transaction runs at a time, as if each one locked
+     * every row, and a rollback puts back the state the transaction started from.
+     */
+    private static final class CardTable implements PlatformTransactionManager {
+
+        final Map<String, Card> cards = new HashMap<>();
+        final Map<String, CardAuthorization> authorizations = new HashMap<>();
+        final AtomicInteger failingInserts = new AtomicInteger();
+        private final ReentrantLock transactionLock = new ReentrantLock();
+        private Map<String, Card> cardsAtBegin;
+        private Map<String, CardAuthorization> authorizationsAtBegin;
+
+        void bind(CardRepository cardRepository, CardAuthorizationRepository authorizationRepository) {
+            when(cardRepository.holdAvailable(anyList())).thenAnswer(invocation -> {
+                List<Object[]> holds = invocation.getArgument(0);
+                int[] updated = new int[holds.size()];
+                for (int i = 0; i < holds.size(); i++) {
+                    updated[i] = hold(holds.get(i));
+                }
+                return updated;
+            });
+            when(cardRepository.findByCardNumbers(anyList())).thenAnswer(invocation -> {
+                List<String> numbers = invocation.getArgument(0);
+                return numbers.stream()
+                        .filter(cards::containsKey)
+                        .map(number -> copy(number, cards.get(number)))
+                        .toList();
+            });
+            when(cardRepository.findByCardNumber(anyString())).thenAnswer(invocation -> {
+                String number = invocation.getArgument(0);
+                return Optional.ofNullable(cards.get(number)).map(card -> copy(number, card));
+            });
+            when(cardRepository.restoreAvailable(anyLong(), any(), any())).thenAnswer(invocation -> {
+                Long cardId = invocation.getArgument(0);
+                for (Map.Entry<String, Card> entry : cards.entrySet()) {
+                    Card card = entry.getValue();
+                    if (card.getCardId().equals(cardId)) {
+                        card.setAvailableCreditLimit(card.getAvailableCreditLimit().add(invocation.getArgument(1)));
+                        card.setAvailableCashLimit(card.getAvailableCashLimit().add(invocation.getArgument(2)));
+                        return Optional.of(copy(entry.getKey(), card));
+                    }
+                }
+                return Optional.empty();
+            });
+            doAnswer(invocation -> {
+                if (failingInserts.getAndDecrement() > 0) {
+                    throw new DataIntegrityViolationException("insert failed");
+                }
+                List<CardAuthorization> rows = invocation.getArgument(0);
+                rows.forEach(row -> authorizations.put(row.getAuthorizationId(), row.toBuilder().build()));
+                return null;
+            }).when(authorizationRepository).insertAll(anyList());
+            when(authorizationRepository.settle(anyString(), anyLong(), anyString(), any())).thenAnswer(invocation -> {
+                CardAuthorization row = authorizations.get((String) invocation.getArgument(0));
+                if (row == null || !row.getCardId().equals(invocation.getArgument(1))
+                        || !CardLedger.HELD.equals(row.getStatus())) {
+                    return Optional.empty();
+                }
+                row.setStatus(invocation.getArgument(2));
+                row.setUpdatedAt(invocation.getArgument(3));
+                return Optional.of(row.toBuilder().build());
+            });
+            when(authorizationRepository.findById(anyString())).thenAnswer(invocation ->
+                    Optional.ofNullable(authorizations.get((String) invocation.getArgument(0)))
+                            .map(row -> row.toBuilder().build()));
+        }
+
+        // The guarded decrement of CardRepository.holdAvailable
+        private int hold(Object[] hold) {
+            BigDecimal credit = (BigDecimal) hold[0];
+            BigDecimal cash = (BigDecimal) hold[1];
+            Card card = cards.get((String) hold[2]);
+            LocalDate today = ((java.sql.Date) hold[3]).toLocalDate();
+            if (card == null || !"CACT".equals(card.getStatusCode()) || card.getExpiryDate().isBefore(today)
+                    || card.getAvailableCreditLimit().compareTo(credit) < 0
+                    || card.getAvailableCashLimit().compareTo(cash) < 0) {
+                return 0;
+            }
+            card.setAvailableCreditLimit(card.getAvailableCreditLimit().subtract(credit));
+            card.setAvailableCashLimit(card.getAvailableCashLimit().subtract(cash));
+            return 1;
+        }
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            transactionLock.lock();
+            cardsAtBegin = new HashMap<>();
+            cards.forEach((number, card) -> cardsAtBegin.put(number, copy(number, card)));
+            authorizationsAtBegin = new HashMap<>();
+            authorizations.forEach((id, row) -> authorizationsAtBegin.put(id, row.toBuilder().build()));
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            transactionLock.unlock();
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            cards.clear();
+            cards.putAll(cardsAtBegin);
+            authorizations.clear();
+            authorizations.putAll(authorizationsAtBegin);
+            transactionLock.unlock();
+        }
+
+        private static Card copy(String number, Card card) {
+            return Card.builder()
+                    .cardId(card.getCardId())
+                    .cardNumber(number)
+                    .expiryDate(card.getExpiryDate())
+                    .statusCode(card.getStatusCode())
+                    .creditLimit(card.getCreditLimit())
+                    .cashLimit(card.getCashLimit())
+                    .availableCreditLimit(card.getAvailableCreditLimit())
+                    .availableCashLimit(card.getAvailableCashLimit())
+                    .build();
+        }
+    }
+}
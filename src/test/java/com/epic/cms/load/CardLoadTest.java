@@ -0,0 +1,27 @@
+package com.epic.cms.load;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Map;
+
+/**
+ * Mixed encrypted-write / read / process workload against an embedded database.
+ * Run with {@code mvn -B test -Pload-test}; tune with {@code -Dload.*} properties (see {@link LoadHarness}).
+ */
+@Tag("load")
+class CardLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(CardLoadTest.class);
+
+    @Test
+    void mixedWorkload() throws Exception {
+        try (LoadHarness harness = new LoadHarness();
+             ConfigurableApplicationContext context = harness.startApplication(Map.of())) {
+            logger.info("{}", harness.runMixedWorkload(context));
+        }
+    }
+}
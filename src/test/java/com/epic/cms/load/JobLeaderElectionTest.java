@@ -0,0 +1,79 @@
+package com.epic.cms.load;
+
+import com.epic.cms.job.JobLeaderElector;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Starts three application contexts against one embedded database and checks that each scheduled
+ * job runs on exactly one of them, and that another takes over when the runner stops.
+ * Run with {@code mvn -B test -Pload-test -Dtest=JobLeaderElectionTest}.
+ */
+@Tag("load")
+class JobLeaderElectionTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobLeaderElectionTest.class);
+
+    private static final String JOB = "status-counter-reconciliation";
+    private static final Map<String, Object> FAST_JOBS = Map.of(
+            "cms.stats.reconcile-interval-ms", 200,
+            "cms.jobs.expiry-sweep.initial-delay-ms", 0,
+            "cms.jobs.expiry-sweep.interval-ms", 200);
+
+    @Test
+    void oneRunnerPerJobWithFailover() throws Exception {
+        try (LoadHarness harness = new LoadHarness()) {
+            List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+            try {
+                nodes.add(harness.startApplication(FAST_JOBS));
+                // Only the first node creates the schema
+                Map<String, Object> joining = new HashMap<>(FAST_JOBS);
+                joining.put("spring.sql.init.mode", "never");
+                nodes.add(harness.startApplication(joining));
+                nodes.add(harness.startApplication(joining));
+                Thread.sleep(2000);
+
+                JdbcTemplate jdbcTemplate = nodes.get(0).getBean(JdbcTemplate.class);
+                List<Map<String, Object>> runnersPerJob = jdbcTemplate.queryForList(
+                        "SELECT job_name, COUNT(DISTINCT node_id) AS runners FROM job_run GROUP BY job_name");
+                assertFalse(runnersPerJob.isEmpty(), "no job runs recorded");
+                for (Map<String, Object> row : runnersPerJob) {
+                    assertEquals(1L, ((Number) row.get("runners")).longValue(), "runners of " + row.get("job_name"));
+                }
+
+                ConfigurableApplicationContext leader = nodes.stream()
+                        .filter(node -> node.getBean(JobLeaderElector.class).getHeldJobs().contains(JOB))
+                        .findFirst()
+                        .orElseThrow();
+                String leaderId = leader.getBean(JobLeaderElector.class).getNodeId();
+                nodes.remove(leader);
+                leader.close();
+                LocalDateTime stoppedAt = LocalDateTime.now();
+                Thread.sleep(2000);
+
+                List<String> newRunners = nodes.get(0).getBean(JdbcTemplate.class).queryForList(
+                        "SELECT DISTINCT node_id FROM job_run WHERE job_name = ? AND started_at > ?",
+                        String.class, JOB, java.sql.Timestamp.valueOf(stoppedAt));
+                assertEquals(1, newRunners.size(), "runners after failover: " + newRunners);
+                assertNotEquals(leaderId, newRunners.get(0));
+                logger.info("Job '{}' moved from {} to {}", JOB, leaderId, newRunners.get(0));
+            } finally {
+                nodes.forEach(ConfigurableApplicationContext::close);
+            }
+        }
+    }
+}
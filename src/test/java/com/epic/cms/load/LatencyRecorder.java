@@ -0,0 +1,56 @@
+package com.epic.cms.load;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects per-endpoint latencies (microseconds) and summarises them as percentiles.
+ */
+public class LatencyRecorder {
+
+    private final String endpoint;
+    private final AtomicLong errors = new AtomicLong();
+    private long[] samples = new long[4096];
+    private int count;
+
+    public LatencyRecorder(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public synchronized void record(long latencyMicros) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, samples.length * 2);
+        }
+        samples[count++] = latencyMicros;
+    }
+
+    public void recordError() {
+        errors.incrementAndGet();
+    }
+
+    public synchronized void reset() {
+        count = 0;
+        errors.set(0);
+    }
+
+    public synchronized String summary(double elapsedSeconds) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return String.format("%-40s n=%-8d err=%-6d thr=%8.1f/s  p50=%8.2fms  p90=%8.2fms  p99=%8.2fms  p99.9=%8.2fms  max=%8.2fms",
+                endpoint, count, errors.get(), count / elapsedSeconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                percentile(sorted, 0.999), sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1000.0);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1000.0;
+    }
+}
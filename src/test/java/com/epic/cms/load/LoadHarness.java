@@ -0,0 +1,175 @@
+package com.epic.cms.load;
+
+import com.epic.cms.CmsApplication;
+import com.epic.cms.util.CardNumberUtils;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Starts the application against an embedded PostgreSQL instance and drives a mixed open-loop
+ * workload against it. All knobs are system properties so they can be passed on the mvn command line.
+ */
+public class LoadHarness implements AutoCloseable {
+
+    private final EmbeddedPostgres postgres;
+    private final HttpClient setupClient = HttpClient.newHttpClient();
+
+    private final int warmupSeconds = Integer.getInteger("load.warmupSeconds", 5);
+    private final int durationSeconds = Integer.getInteger("load.durationSeconds", 30);
+    private final int seedCards = Integer.getInteger("load.cards", 200);
+    private final double createRate = Double.parseDouble(System.getProperty("load.createRate", "50"));
+    private final double readRate = Double.parseDouble(System.getProperty("load.readRate", "200"));
+    private final double processRate = Double.parseDouble(System.getProperty("load.processRate", "20"));
+    private final int processBurst = Integer.getInteger("load.processBurst", 10);
+    private final String logLevel = System.getProperty("load.logLevel", "WARN");
+
+    public LoadHarness() throws IOException {
+        this.postgres = EmbeddedPostgres.builder().start();
+    }
+
+    public ConfigurableApplicationContext startApplication(Map<String, Object> overrides) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+        properties.put("spring.datasource.username", "postgres");
+        properties.put("spring.datasource.password", "postgres");
+        properties.put("spring.sql.init.mode", "always");
+        properties.put("server.port", 0);
+        // The workload processes the seeded requests itself
+        properties.put("cms.rules.enabled", false);
+        properties.put("logging.level.com.epic.cms", logLevel);
+        properties.put("logging.level.org.springframework.web", logLevel);
+        properties.put("logging.level.org.springframework.jdbc", logLevel);
+        properties.put("logging.level.org.springframework.transaction", logLevel);
+        properties.putAll(overrides);
+
+        return new SpringApplicationBuilder(CmsApplication.class)
+                .properties(properties)
+                .run();
+    }
+
+    /**
+     * Seeds cards and pending activation requests, warms up, then measures the mixed workload.
+     */
+    public String runMixedWorkload(ConfigurableApplicationContext context) throws Exception {
+        Environment env = context.getEnvironment();
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        String baseUri = "http://localhost:" + port;
+        PayloadEncryptor encryptor = new PayloadEncryptor(
+                env.getRequiredProperty("cms.security.encryption.key"),
+                env.getProperty("cms.security.encryption.salt", "cms-salt-2024"));
+
+        int processable = (int) Math.ceil(processRate * (warmupSeconds + durationSeconds));
+        int cardCount = Math.max(seedCards, processable);
+        List<String> cardNumbers = seed(baseUri, encryptor, cardCount);
+
+        AtomicLong newCardSequence = new AtomicLong(5_000_000_000_000_000L);
+        AtomicInteger nextRequestId = new AtomicInteger(1);
+
+        LatencyRecorder create = new LatencyRecorder("POST /api/cards");
+        LatencyRecorder readPlain = new LatencyRecorder("GET /api/cards/{plain}");
+        LatencyRecorder readMasked = new LatencyRecorder("GET /api/cards/{masked}");
+        LatencyRecorder readMaskId = new LatencyRecorder("GET /api/cards/{MASK_id}");
+        LatencyRecorder process = new LatencyRecorder("PUT /api/card-requests/{id}/process");
+        List<LatencyRecorder> recorders = List.of(create, readPlain, readMasked, readMaskId, process);
+
+        OpenLoopDriver driver = new OpenLoopDriver()
+                .scenario(create, createRate, 1, () -> post(baseUri + "/api/cards",
+                        encryptor.envelope(newCard(String.valueOf(newCardSequence.incrementAndGet())))))
+                .scenario(readPlain, readRate / 3, 1,
+                        () -> get(baseUri + "/api/cards/" + pick(cardNumbers)))
+                .scenario(readMasked, readRate / 3, 1,
+                        () -> get(baseUri + "/api/cards/" + CardNumberUtils.maskCardNumber(pick(cardNumbers))))
+                .scenario(readMaskId, readRate / 3, 1,
+                        () -> get(baseUri + "/api/cards/" + CardNumberUtils.generateMaskId(pick(cardNumbers))))
+                .scenario(process, processRate, processBurst,
+                        () -> put(baseUri + "/api/card-requests/" + nextRequestId.getAndIncrement() + "/process",
+                                encryptor.envelope(Map.of("approve", true))));
+
+        try {
+            driver.run(Duration.ofSeconds(warmupSeconds));
+            recorders.forEach(LatencyRecorder::reset);
+            driver.run(Duration.ofSeconds(durationSeconds));
+        } finally {
+            driver.shutdown();
+        }
+
+        StringBuilder report = new StringBuilder()
+                .append(String.format("Load report (%ds measured, %d seeded cards, virtual threads=%s)%n",
+                        durationSeconds, cardCount, env.getProperty("spring.threads.virtual.enabled", "false")));
+        for (LatencyRecorder recorder : recorders) {
+            report.append(recorder.summary(durationSeconds)).append(System.lineSeparator());
+        }
+        return report.toString();
+    }
+
+    private List<String> seed(String baseUri, PayloadEncryptor encryptor, int count) throws Exception {
+        List<String> cardNumbers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String cardNumber = String.valueOf(4_000_000_000_000_000L + i);
+            send(post(baseUri + "/api/cards", encryptor.envelope(newCard(cardNumber))));
+            send(post(baseUri + "/api/card-requests", encryptor.envelope(
+                    Map.of("cardIdentifier", cardNumber, "requestReasonCode", "ACTI"))));
+            cardNumbers.add(cardNumber);
+        }
+        return cardNumbers;
+    }
+
+    private void send(HttpRequest request) throws Exception {
+        HttpResponse<String> response = setupClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException("Seeding failed: " + request.uri() + " -> " + response.statusCode());
+        }
+    }
+
+    private static Map<String, Object> newCard(String cardNumber) {
+        return Map.of(
+                "cardNumber", cardNumber,
+                "expiryDate", "2030-12-31",
+                "creditLimit", 100000,
+                "cashLimit", 50000);
+    }
+
+    private static String pick(List<String> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+
+    private static HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).GET().build();
+    }
+
+    private static HttpRequest post(String uri, String json) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static HttpRequest put(String uri, String json) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    @Override
+    public void close() throws IOException {
+        postgres.close();
+    }
+}
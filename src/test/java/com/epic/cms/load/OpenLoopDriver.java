@@ -0,0 +1,119 @@
+package com.epic.cms.load;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Open-loop load generator: every scenario fires on its own fixed arrival schedule regardless of
+ * how long earlier requests take. Latency is measured from the intended send time so a stalled
+ * server shows up as queueing delay instead of silently lowering the offered load.
+ */
+public class OpenLoopDriver {
+
+    private final HttpClient httpClient;
+    private final ExecutorService clientExecutor = Executors.newCachedThreadPool();
+    private final List<Scenario> scenarios = new ArrayList<>();
+
+    public OpenLoopDriver() {
+        this.httpClient = HttpClient.newBuilder()
+                .executor(clientExecutor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * @param ratePerSecond requests per second offered to the endpoint
+     * @param burstSize     number of requests released together at each arrival (1 = smooth)
+     */
+    public OpenLoopDriver scenario(LatencyRecorder recorder, double ratePerSecond, int burstSize,
+                                   Supplier<HttpRequest> requestSupplier) {
+        if (ratePerSecond > 0) {
+            scenarios.add(new Scenario(recorder, ratePerSecond, Math.max(1, burstSize), requestSupplier));
+        }
+        return this;
+    }
+
+    public void run(Duration duration) throws InterruptedException {
+        Phaser inFlight = new Phaser(1);
+        List<Thread> schedulers = new ArrayList<>();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        for (Scenario scenario : scenarios) {
+            Thread scheduler = new Thread(() -> schedule(scenario, start, end, inFlight),
+                    "load-" + scenario.recorder.getEndpoint());
+            scheduler.setDaemon(true);
+            scheduler.start();
+            schedulers.add(scheduler);
+        }
+        for (Thread scheduler : schedulers) {
+            scheduler.join();
+        }
+        try {
+            inFlight.awaitAdvanceInterruptibly(inFlight.arrive(), 30, TimeUnit.SECONDS);
+        } catch (java.util.concurrent.TimeoutException e) {
+            // Stragglers beyond 30s are reported by their absence from the sample count
+        }
+    }
+
+    public void shutdown() {
+        clientExecutor.shutdownNow();
+    }
+
+    private void schedule(Scenario scenario, long start, long end, Phaser inFlight) {
+        long intervalNanos = (long) (1_000_000_000L * scenario.burstSize / scenario.ratePerSecond);
+        long intended = start;
+
+        while (intended < end) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            for (int i = 0; i < scenario.burstSize; i++) {
+                fire(scenario, intended, inFlight);
+            }
+            intended += intervalNanos;
+        }
+    }
+
+    private void fire(Scenario scenario, long intendedNanos, Phaser inFlight) {
+        HttpRequest request;
+        try {
+            request = scenario.requestSupplier.get();
+        } catch (RuntimeException e) {
+            scenario.recorder.recordError();
+            return;
+        }
+
+        inFlight.register();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    long latencyMicros = (System.nanoTime() - intendedNanos) / 1000;
+                    if (error != null || response.statusCode() >= 400 || isErrorBody(response.body())) {
+                        scenario.recorder.recordError();
+                    } else {
+                        scenario.recorder.record(latencyMicros);
+                    }
+                    inFlight.arriveAndDeregister();
+                });
+    }
+
+    // GlobalExceptionHandler answers business failures with 200 and an ErrorResponse body
+    private static boolean isErrorBody(String body) {
+        return body != null && body.startsWith("{\"code\":");
+    }
+
+    private record Scenario(LatencyRecorder recorder, double ratePerSecond, int burstSize,
+                            Supplier<HttpRequest> requestSupplier) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.epic.cms.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Builds encrypted request payloads the same way the frontend does:
+ * PBKDF2WithHmacSHA256 key derivation and Base64([12-byte IV + AES-GCM ciphertext]).
+ */
+public class PayloadEncryptor {
+
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+
+    private final SecretKey aesKey;
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final SecureRandom random = new SecureRandom();
+
+    public PayloadEncryptor(String secretKey, String salt) {
+        try {
+            SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
+            PBEKeySpec spec = new PBEKeySpec(secretKey.toCharArray(), salt.getBytes(), 100000, 256);
+            this.aesKey = new SecretKeySpec(factory.generateSecret(spec).getEncoded(), "AES");
+        } catch (Exception e) {
+            throw new IllegalStateException("Key derivation failed", e);
+        }
+    }
+
+    public String encrypt(Object payload) {
+        try {
+            byte[] plainText = objectMapper.writeValueAsString(payload).getBytes(StandardCharsets.UTF_8);
+            byte[] iv = new byte[IV_LENGTH];
+            random.nextBytes(iv);
+
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, aesKey, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+            byte[] cipherText = cipher.doFinal(plainText);
+
+            return Base64.getEncoder().encodeToString(
+                    ByteBuffer.allocate(iv.length + cipherText.length).put(iv).put(cipherText).array());
+        } catch (Exception e) {
+            throw new IllegalStateException("Payload encryption failed", e);
+        }
+    }
+
+    /**
+     * Wraps the payload in the {@code {"payload": "..."}} envelope expected by the controllers.
+     */
+    public String envelope(Object payload) {
+        return "{\"payload\":\"" + encrypt(payload) + "\"}";
+    }
+}
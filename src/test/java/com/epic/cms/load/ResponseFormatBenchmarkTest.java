@@ -0,0 +1,135 @@
+package com.epic.cms.load;
+
+import com.epic.cms.dto.CardResponseDto;
+import com.epic.cms.dto.PageResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.luben.zstd.Zstd;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Payload size and serialise time of a card page in JSON, CBOR and Smile, each also gzip- and
+ * zstd-compressed, for 1k and 100k records. Mappers are built the way the application builds them.
+ * Run with {@code mvn -B test -Pload-test -Dtest=ResponseFormatBenchmarkTest}; tune with
+ * {@code -Dbench.warmups}, {@code -Dbench.iterations} and {@code -Dbench.zstdLevel}.
+ */
+@Tag("load")
+class ResponseFormatBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseFormatBenchmarkTest.class);
+
+    private static final int WARMUPS = Integer.getInteger("bench.warmups", 5);
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 10);
+    private static final int ZSTD_LEVEL = Integer.getInteger("bench.zstdLevel", 3);
+
+    @Test
+    void payloadSizeAndSerialiseTime() throws Exception {
+        Map<String, ObjectMapper> formats = new LinkedHashMap<>();
+        formats.put("json", new Jackson2ObjectMapperBuilder().build());
+        formats.put("cbor", new Jackson2ObjectMapperBuilder().factory(new CBORFactory()).build());
+        formats.put("smile", new Jackson2ObjectMapperBuilder().factory(new SmileFactory()).build());
+
+        for (int records : new int[]{1_000, 100_000}) {
+            PageResponse<CardResponseDto> page = page(records);
+            StringBuilder report = new StringBuilder(String.format("%,d records%n", records));
+            report.append(String.format("  %-6s %12s %10s %12s %10s %12s %10s",
+                    "format", "bytes", "ser ms", "gzip bytes", "gzip ms", "zstd bytes", "zstd ms"));
+            for (Map.Entry<String, ObjectMapper> format : formats.entrySet()) {
+                ObjectMapper mapper = format.getValue();
+                byte[] body = mapper.writeValueAsBytes(page);
+                PageResponse<?> readBack = mapper.readValue(body, PageResponse.class);
+                assertEquals(records, readBack.getContent().size(), format.getKey() + " round trip");
+
+                double serialiseMs = bestMillis(page, value -> write(mapper, value));
+                byte[] gzipped = gzip(body);
+                double gzipMs = bestMillis(body, ResponseFormatBenchmarkTest::gzip);
+                byte[] zstd = Zstd.compress(body, ZSTD_LEVEL);
+                double zstdMs = bestMillis(body, bytes -> Zstd.compress(bytes, ZSTD_LEVEL));
+
+                report.append(String.format("%n  %-6s %,12d %10.2f %,12d %10.2f %,12d %10.2f", format.getKey(),
+                        body.length, serialiseMs, gzipped.length, gzipMs, zstd.length, zstdMs));
+            }
+            logger.info(report.toString());
+        }
+    }
+
+    // Distinct numbers, limits and timestamps per row, so compression sees realistic entropy
+    private static PageResponse<CardResponseDto> page(int records) {
+        List<CardResponseDto> content = new ArrayList<>(records);
+        LocalDateTime updated = LocalDateTime.of(2026, 1, 1, 9, 0);
+        for (int i = 0; i < records; i++) {
+            CardResponseDto dto = new CardResponseDto();
+            String lastFour = String.format("%04d", i % 10_000);
+            dto.setCardNumber("411111******" + lastFour);
+            dto.setMaskId(String.format("MASK_%08X", i * 2_654_435_761L & 0xFFFFFFFFL));
+            dto.setExpiryDate(LocalDate.of(2027 + i % 5, 1 + i % 12, 1));
+            dto.setStatusCode(i % 7 == 0 ? "DACT" : i % 11 == 0 ? "IACT" : "CACT");
+            dto.setCreditLimit(BigDecimal.valueOf(1_000 + (i % 50) * 500L, 0).setScale(2));
+            dto.setCashLimit(BigDecimal.valueOf(200 + (i % 20) * 100L, 0).setScale(2));
+            dto.setAvailableCreditLimit(BigDecimal.valueOf(50_000 + i * 37L % 100_000, 2));
+            dto.setAvailableCashLimit(BigDecimal.valueOf(10_000 + i * 13L % 20_000, 2));
+            dto.setLastUpdateTime(updated.plusSeconds(i * 97L));
+            content.add(dto);
+        }
+        return PageResponse.<CardResponseDto>builder()
+                .content(content)
+                .pageNumber(0)
+                .pageSize(records)
+                .totalElements(records)
+                .totalPages(1)
+                .first(true)
+                .last(true)
+                .build();
+    }
+
+    private static byte[] write(ObjectMapper mapper, Object value) {
+        try {
+            return mapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static <T> double bestMillis(T input, Function<T, byte[]> work) {
+        for (int i = 0; i < WARMUPS; i++) {
+            work.apply(input);
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            work.apply(input);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1_000_000.0;
+    }
+}
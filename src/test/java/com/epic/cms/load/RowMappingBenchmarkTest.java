@@ -0,0 +1,115 @@
+package com.epic.cms.load;
+
+import com.epic.cms.mapper.CardRowMapper;
+import com.epic.cms.model.Card;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Per-row cost of mapping large card result sets: the former by-name builder mapper against the
+ * index-resolving {@link CardRowMapper} at full, list and key projections. Each figure has the cost
+ * of just fetching the same rows subtracted.
+ * Run with {@code mvn -B test -Pload-test -Dtest=RowMappingBenchmarkTest}; tune with
+ * {@code -Dbench.rows}, {@code -Dbench.warmups} and {@code -Dbench.iterations}.
+ */
+@Tag("load")
+class RowMappingBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(RowMappingBenchmarkTest.class);
+
+    private static final int ROWS = Integer.getInteger("bench.rows", 200_000);
+    private static final int WARMUPS = Integer.getInteger("bench.warmups", 5);
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 10);
+
+    // CardRowMapper as it was: columns by name on every row, through the builder
+    private static final RowMapper<Card> BY_NAME = (rs, rowNum) -> Card.builder()
+            .cardId(rs.getLong("card_id"))
+            .cardNumber(rs.getString("card_number"))
+            .expiryDate(rs.getDate("expiry_date").toLocalDate())
+            .statusCode(rs.getString("status_code"))
+            .creditLimit(rs.getBigDecimal("credit_limit"))
+            .cashLimit(rs.getBigDecimal("cash_limit"))
+            .availableCreditLimit(rs.getBigDecimal("available_credit_limit"))
+            .availableCashLimit(rs.getBigDecimal("available_cash_limit"))
+            .lastUpdateTime(rs.getTimestamp("last_update_time").toLocalDateTime())
+            .maskId(rs.getString("mask_id"))
+            .build();
+
+    @Test
+    void mappingCostPerRow() throws Exception {
+        try (LoadHarness harness = new LoadHarness();
+             ConfigurableApplicationContext context = harness.startApplication(Map.of())) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            CardRowMapper mapper = context.getBean(CardRowMapper.class);
+            seed(jdbcTemplate);
+
+            String all = "SELECT " + CardRowMapper.COLUMNS + " FROM card";
+            String list = "SELECT " + CardRowMapper.LIST_COLUMNS + " FROM card";
+            String keys = "SELECT " + CardRowMapper.KEY_COLUMNS + " FROM card";
+
+            List<Card> byName = jdbcTemplate.query(all + " ORDER BY card_id LIMIT 1", BY_NAME);
+            List<Card> indexed = jdbcTemplate.query(all + " ORDER BY card_id LIMIT 1", mapper.forQuery());
+            assertEquals(byName, indexed, "indexed mapper disagrees with the by-name mapper");
+
+            double fetchAll = nanosPerRow(() -> fetchOnly(jdbcTemplate, all));
+            double fetchList = nanosPerRow(() -> fetchOnly(jdbcTemplate, list));
+            double fetchKeys = nanosPerRow(() -> fetchOnly(jdbcTemplate, keys));
+            double byNameAll = nanosPerRow(() -> jdbcTemplate.query(all, BY_NAME).size());
+            double indexedAll = nanosPerRow(() -> jdbcTemplate.query(all, mapper.forQuery()).size());
+            double indexedList = nanosPerRow(() -> jdbcTemplate.query(list, mapper.forQuery()).size());
+            double indexedKeys = nanosPerRow(() -> jdbcTemplate.query(keys, mapper.forQuery()).size());
+
+            logger.info(String.format("Row mapping over %d cards, ns/row (fetch + map | map only)%n"
+                            + "  by name, all columns   %8.1f | %8.1f%n"
+                            + "  indexed, all columns   %8.1f | %8.1f%n"
+                            + "  indexed, list columns  %8.1f | %8.1f%n"
+                            + "  indexed, key columns   %8.1f | %8.1f",
+                    ROWS, byNameAll, byNameAll - fetchAll, indexedAll, indexedAll - fetchAll,
+                    indexedList, indexedList - fetchList, indexedKeys, indexedKeys - fetchKeys));
+        }
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("""
+            INSERT INTO card (card_number, expiry_date, status_code, credit_limit, cash_limit,
+                              available_credit_limit, available_cash_limit, last_update_time, mask_id)
+            SELECT 'bench-' || g, CURRENT_DATE + 365, 'CACT', 5000.00, 1000.00, 4500.00, 1000.00,
+                   CURRENT_TIMESTAMP, 'MASK_bench' || g
+            FROM generate_series(1, ?) g
+        """, ROWS);
+        jdbcTemplate.execute("ANALYZE card");
+    }
+
+    private static int fetchOnly(JdbcTemplate jdbcTemplate, String sql) {
+        int[] rows = {0};
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> rows[0]++);
+        return rows[0];
+    }
+
+    // Best of the measured iterations, after warm-up, divided by the rows the query returned
+    private static double nanosPerRow(Supplier<Integer> query) {
+        int rows = 0;
+        for (int i = 0; i < WARMUPS; i++) {
+            rows = query.get();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            rows = query.get();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return (double) best / Math.max(rows, 1);
+    }
+}
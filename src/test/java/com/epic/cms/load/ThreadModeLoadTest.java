@@ -0,0 +1,35 @@
+package com.epic.cms.load;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Map;
+
+/**
+ * Runs the same mixed workload with platform and then virtual request threads against the same
+ * embedded database and logs both reports side by side. Raise the offered load to find the
+ * saturation point, e.g. {@code -Pload-test -Dtest=ThreadModeLoadTest -Dload.readRate=2000}.
+ */
+@Tag("load")
+class ThreadModeLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadModeLoadTest.class);
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        StringBuilder reports = new StringBuilder();
+        try (LoadHarness harness = new LoadHarness()) {
+            for (boolean virtual : new boolean[]{false, true}) {
+                try (ConfigurableApplicationContext context = harness.startApplication(Map.of(
+                        "spring.threads.virtual.enabled", virtual,
+                        "cms.diagnostics.pinning.enabled", virtual))) {
+                    reports.append(harness.runMixedWorkload(context)).append(System.lineSeparator());
+                }
+            }
+        }
+        logger.info("Platform and virtual thread runs:{}{}", System.lineSeparator(), reports);
+    }
+}